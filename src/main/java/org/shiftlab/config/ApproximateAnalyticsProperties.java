@@ -0,0 +1,9 @@
+package org.shiftlab.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.approximate-analytics")
+public record ApproximateAnalyticsProperties(@DefaultValue("100") int heavyHitterCapacity,
+                                             @DefaultValue("12") int hyperLogLogPrecision) {
+}
@@ -0,0 +1,11 @@
+package org.shiftlab.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.best-period-cache")
+public record BestPeriodCacheProperties(@DefaultValue("10000") long maximumSize,
+                                        @DefaultValue("10m") Duration timeToLive) {
+}
@@ -0,0 +1,42 @@
+package org.shiftlab.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.shiftlab.store.entity.SellerEntity;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hit ratios of the Hibernate second-level cache. The hit, miss and put counters per region come from
+ * hibernate-micrometer as {@code hibernate.second.level.cache.requests} and {@code hibernate.cache.query.requests}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class CacheMetricsConfig {
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics,
+                            stats -> hitRatio(stats.getDomainDataRegionStatistics(SellerEntity.CACHE_REGION)))
+                    .tag("region", SellerEntity.CACHE_REGION)
+                    .register(registry);
+            Gauge.builder("hibernate.cache.query.hit.ratio", statistics,
+                            stats -> hitRatio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()))
+                    .register(registry);
+        };
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        return hitRatio(region.getHitCount(), region.getMissCount());
+    }
+
+    private static double hitRatio(long hits, long misses) {
+        return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+    }
+}
@@ -0,0 +1,7 @@
+package org.shiftlab.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.leaderboard")
+public record LeaderboardProperties(boolean seedOnStartup) {
+}
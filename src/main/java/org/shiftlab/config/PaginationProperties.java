@@ -0,0 +1,8 @@
+package org.shiftlab.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.pagination")
+public record PaginationProperties(@DefaultValue("1000") int maxLimit) {
+}
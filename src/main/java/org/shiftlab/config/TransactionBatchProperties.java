@@ -0,0 +1,11 @@
+package org.shiftlab.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.transaction-batch")
+public record TransactionBatchProperties(@DefaultValue("10000") int maxItems,
+                                         @DefaultValue("500") int jdbcBatchSize,
+                                         @DefaultValue("1000") int streamChunkSize,
+                                         @DefaultValue("100") int maxReportedErrors) {
+}
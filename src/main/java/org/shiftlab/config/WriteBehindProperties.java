@@ -0,0 +1,15 @@
+package org.shiftlab.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.write-behind")
+public record WriteBehindProperties(@DefaultValue("false") boolean enabled,
+                                    @DefaultValue("wal") Path directory,
+                                    @DefaultValue("1s") Duration flushInterval,
+                                    @DefaultValue("1000") int flushBatchSize,
+                                    @DefaultValue("100000") int maxPending) {
+}
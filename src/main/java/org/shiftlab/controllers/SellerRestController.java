@@ -1,21 +1,37 @@
 package org.shiftlab.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import org.shiftlab.config.PaginationProperties;
+import org.shiftlab.controllers.payload.Granularity;
 import org.shiftlab.controllers.payload.NewSellerPayload;
 import org.shiftlab.controllers.payload.Period;
 import org.shiftlab.controllers.payload.UpdateSellerPayload;
+import org.shiftlab.dto.ActiveSellersCount;
+import org.shiftlab.dto.ApproximateTop;
 import org.shiftlab.dto.BestPeriod;
+import org.shiftlab.dto.KeysetPage;
 import org.shiftlab.dto.SellerDto;
+import org.shiftlab.dto.SellerTotal;
+import org.shiftlab.dto.SeriesBucket;
+import org.shiftlab.dto.TransactionDto;
 import org.shiftlab.exceptions.SellerNotFoundException;
 import org.shiftlab.services.SellerService;
+import org.shiftlab.services.TransactionService;
+import org.shiftlab.services.etag.TableChangeTokens;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDate;
@@ -27,17 +43,54 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SellerRestController {
     private final SellerService sellerService;
+    private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+    private final PaginationProperties paginationProperties;
+    private final TableChangeTokens tableChangeTokens;
     private final Clock clock;
     @GetMapping
-    public List<SellerDto> getAllSellers(){
-        return sellerService.findAllSellers();
+    public ResponseEntity<List<SellerDto>> getAllSellers(WebRequest request){
+        String eTag = tableChangeTokens.sellers();
+        if(request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(sellerService.findAllSellers());
 
     }
+    @GetMapping(params = "limit")
+    public ResponseEntity<KeysetPage<SellerDto>> getSellersPage(@RequestParam(name = "after", defaultValue = "0") int after,
+                                                                @RequestParam(name = "limit") int limit,
+                                                                WebRequest request) {
+        checkPage(after, limit);
+        String eTag = tableChangeTokens.sellers();
+        if(request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(sellerService.findSellersAfter(after, limit));
+    }
     @GetMapping("/{id}")
-    public SellerDto getSellerById(@RequestParam(name = "transactions",required = false) boolean flag, @PathVariable(name = "id") int id) {
-        SellerDto seller = sellerService.findSellerById(id).orElseThrow(()->new SellerNotFoundException(id));
-        if(!flag) seller.setTransactions(null);
-        return seller;
+    public ResponseEntity<SellerDto> getSellerById(@RequestParam(name = "transactions",required = false) boolean flag,
+                                                   @PathVariable(name = "id") int id,
+                                                   WebRequest request) {
+        if(flag) {
+            return ResponseEntity.ok(sellerService.findSellerWithTransactionsById(id)
+                    .orElseThrow(()->new SellerNotFoundException(id)));
+        }
+        String eTag = sellerService.findSellerVersion(id)
+                .map(version -> "\"" + version + "\"")
+                .orElseThrow(()->new SellerNotFoundException(id));
+        if(request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(sellerService.findSellerById(id)
+                .orElseThrow(()->new SellerNotFoundException(id)));
+    }
+    @GetMapping("/{id}/transactions")
+    public KeysetPage<TransactionDto> getSellerTransactions(@PathVariable(name = "id") int id,
+                                                            @RequestParam(name = "after", defaultValue = "0") int after,
+                                                            @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        checkPage(after, limit);
+        return transactionService.findSellerTransactionsAfter(id, after, limit);
     }
     @GetMapping("/less-then-summa")
     public List<SellerDto> getSellersTransactionsAmountLessThenSumma(
@@ -54,18 +107,80 @@ public class SellerRestController {
     }
     @GetMapping("/most-productive")
     public SellerDto getMostProductiveSellerInPeriod(@RequestParam(name="period") String per) {
-        Period period;
-        try {
-            period = Period.fromString(per);
-        }
-        catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid period: " + per);
-        }
+        Period period = parsePeriod(per);
         LocalDateTime timeFrom = period.getStartDate(clock);
         LocalDateTime timeTo = LocalDateTime.now(clock);
         return sellerService.findMostProductiveSellerByDate(timeFrom,timeTo).orElseThrow(()->new SellerNotFoundException(period));
 
     }
+    @GetMapping(value = "/most-productive", params = {"limit", "approx!=true"})
+    public List<SellerDto> getMostProductiveSellersInPeriod(@RequestParam(name="period") String per,
+                                                            @RequestParam(name="limit") int limit) {
+        Period period = parsePeriod(per);
+        if(limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be positive");
+        }
+        LocalDateTime timeFrom = period.getStartDate(clock);
+        LocalDateTime timeTo = LocalDateTime.now(clock);
+        return sellerService.findMostProductiveSellersByDate(timeFrom,timeTo,limit);
+
+    }
+    @GetMapping(value = "/most-productive", params = "approx=true")
+    public ApproximateTop getMostProductiveSellersApproximately(@RequestParam(name="period") String per,
+                                                                @RequestParam(name="limit", defaultValue = "1") int limit) {
+        Period period = parsePeriod(per);
+        if(limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be positive");
+        }
+        return sellerService.findMostProductiveSellersApproximately(period, limit);
+    }
+    @GetMapping("/leaderboard")
+    public List<SellerTotal> getLeaderboard(@RequestParam(name="period") String per,
+                                            @RequestParam(name="limit", defaultValue = "10") int limit) {
+        Period period = parsePeriod(per);
+        if(limit <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be positive");
+        }
+        return sellerService.findTopSellers(period, limit);
+    }
+    @GetMapping("/active-count")
+    public ActiveSellersCount getActiveSellersCount(@RequestParam(name="period") String per,
+                                                    @RequestParam(name="approx", defaultValue = "false") boolean approx) {
+        return sellerService.countActiveSellers(parsePeriod(per), approx);
+    }
+    @GetMapping("/{id}/series")
+    public List<SeriesBucket> getSellerSeries(@PathVariable(name = "id") int id,
+                                              @RequestParam(name="granularity") String gran,
+                                              @RequestParam(name="from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+                                              @RequestParam(name="to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo) {
+        Granularity granularity;
+        try {
+            granularity = Granularity.fromString(gran);
+        }
+        catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid granularity: " + gran);
+        }
+        if(dateFrom.isAfter(dateTo)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date from cannot be after Date to");
+        }
+        return sellerService.findSellerSeries(id, granularity, dateFrom, dateTo);
+    }
+    @GetMapping(value = "/best-period", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody getBestPeriods(@RequestParam(name = "ids", required = false) List<Integer> ids) {
+        if(ids != null) {
+            sellerService.checkSellersExist(ids);
+        }
+        return outputStream -> sellerService.computeBestPeriods(ids, sellerBestPeriod -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(sellerBestPeriod));
+                outputStream.write('\n');
+                outputStream.flush();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
     @GetMapping("/best-period/{id}")
     public BestPeriod getMostProductiveSellerInPeriod(@PathVariable(name = "id") int id) {
 
@@ -93,6 +208,24 @@ public class SellerRestController {
         return ResponseEntity.noContent().build();
     }
 
+    private void checkPage(int after, int limit) {
+        if(after < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "After must not be negative");
+        }
+        if(limit <= 0 || limit > paginationProperties.maxLimit()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + paginationProperties.maxLimit());
+        }
+    }
+
+    private Period parsePeriod(String per) {
+        try {
+            return Period.fromString(per);
+        }
+        catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid period: " + per);
+        }
+    }
+
 
 
 }
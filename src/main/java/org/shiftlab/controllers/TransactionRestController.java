@@ -1,45 +1,163 @@
 package org.shiftlab.controllers;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.shiftlab.config.PaginationProperties;
+import org.shiftlab.config.TransactionBatchProperties;
 import org.shiftlab.controllers.payload.NewTransactionPayload;
+import org.shiftlab.controllers.payload.TransactionSearchFilter;
+import org.shiftlab.dto.KeysetPage;
 import org.shiftlab.dto.PaymentType;
+import org.shiftlab.dto.PaymentTypeStats;
+import org.shiftlab.dto.TransactionBatchResult;
 import org.shiftlab.dto.TransactionDto;
+import org.shiftlab.dto.TransactionIngestSummary;
 import org.shiftlab.exceptions.TransactionNotFoundException;
 import org.shiftlab.services.TransactionService;
+import org.shiftlab.services.etag.TableChangeTokens;
+import org.shiftlab.services.ingest.TransactionCsvImporter;
+import org.shiftlab.services.ingest.TransactionStreamIngester;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/transaction")
 @RequiredArgsConstructor
 public class TransactionRestController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
     private final TransactionService transactionalService;
+    private final TransactionBatchProperties transactionBatchProperties;
+    private final TransactionStreamIngester transactionStreamIngester;
+    private final TransactionCsvImporter transactionCsvImporter;
+    private final PaginationProperties paginationProperties;
+    private final ObjectMapper objectMapper;
+    private final TableChangeTokens tableChangeTokens;
 
 
     @GetMapping
-    public List<TransactionDto> getAllTransactions(){
-        return transactionalService.findAllTransactions();
+    public ResponseEntity<List<TransactionDto>> getAllTransactions(WebRequest request){
+        String eTag = tableChangeTokens.transactions();
+        if(request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(transactionalService.findAllTransactions());
 
     }
+    @GetMapping(params = "limit")
+    public ResponseEntity<KeysetPage<TransactionDto>> getTransactionsPage(@RequestParam(name="after", defaultValue = "0") int after,
+                                                                          @RequestParam(name="limit") int limit,
+                                                                          WebRequest request) {
+        checkPage(after, limit);
+        String eTag = tableChangeTokens.transactions();
+        if(request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(transactionalService.findTransactionsAfter(after, limit));
+    }
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public StreamingResponseBody exportTransactions() {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                generator.flush();
+                transactionalService.exportTransactions(transaction -> {
+                    try {
+                        generator.writeObject(transaction);
+                    }
+                    catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+    @GetMapping(value = "/export/csv", produces = TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTransactionsCsv(
+            @RequestParam(name="sellerId", required = false) Integer sellerId,
+            @RequestParam(name="from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(name="to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo) {
+        if(dateFrom != null && dateTo != null && dateFrom.isAfter(dateTo)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date from cannot be after Date to");
+        }
+        StreamingResponseBody body = outputStream -> transactionalService.exportTransactionsCsv(
+                sellerId,
+                dateFrom == null ? null : dateFrom.atStartOfDay(),
+                dateTo == null ? null : dateTo.plusDays(1).atStartOfDay(),
+                outputStream);
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions.csv\"")
+                .body(body);
+    }
+    @GetMapping("/search")
+    public KeysetPage<TransactionDto> searchTransactions(
+            @RequestParam(name="sellerId", required = false) Integer sellerId,
+            @RequestParam(name="from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(name="to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(name="paymentType", required = false) String paymentType,
+            @RequestParam(name="amountFrom", required = false) BigDecimal amountFrom,
+            @RequestParam(name="amountTo", required = false) BigDecimal amountTo,
+            @RequestParam(name="after", defaultValue = "0") int after,
+            @RequestParam(name="limit", defaultValue = "100") int limit) {
+        if(dateFrom != null && dateTo != null && dateFrom.isAfter(dateTo)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date from cannot be after Date to");
+        }
+        if(amountFrom != null && amountTo != null && amountFrom.compareTo(amountTo) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Amount from cannot be greater than Amount to");
+        }
+        checkPage(after, limit);
+        var filter = new TransactionSearchFilter(
+                sellerId,
+                dateFrom == null ? null : dateFrom.atStartOfDay(),
+                dateTo == null ? null : dateTo.plusDays(1).atStartOfDay(),
+                paymentType == null ? null : parsePaymentType(paymentType),
+                amountFrom,
+                amountTo);
+        return transactionalService.searchTransactions(filter, after, limit);
+    }
     @GetMapping("/{id}")
-    public TransactionDto getTransactionById(@PathVariable(name="id") int id){
-        return transactionalService.findTransactionById(id).orElseThrow(()->new TransactionNotFoundException(id));
+    public ResponseEntity<TransactionDto> getTransactionById(@PathVariable(name="id") int id, WebRequest request){
+        String eTag = transactionalService.findTransactionVersion(id)
+                .map(version -> "\"" + version + "\"")
+                .orElseThrow(()->new TransactionNotFoundException(id));
+        if(request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(transactionalService.findTransactionById(id)
+                .orElseThrow(()->new TransactionNotFoundException(id)));
 
     }
+    @GetMapping("/stats/payment-types")
+    public List<PaymentTypeStats> getPaymentTypeStats(
+            @RequestParam(name="from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(name="to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(name="sellerId", required = false) Integer sellerId) {
+        if(dateFrom.isAfter(dateTo)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date from cannot be after Date to");
+        }
+        return transactionalService.findPaymentTypeStats(dateFrom, dateTo, sellerId);
+    }
     @PostMapping
     public ResponseEntity<TransactionDto> createTransaction(@RequestBody @Valid NewTransactionPayload newTransactionPayload){
-        PaymentType paymentType;
-        try {
-            paymentType = PaymentType.valueOf(newTransactionPayload.paymentType().toUpperCase());
-        }
-        catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid payment type");
-        }
+        PaymentType paymentType = parsePaymentType(newTransactionPayload.paymentType());
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(transactionalService.createTransaction(
                                 newTransactionPayload.sellerId(),
@@ -47,4 +165,38 @@ public class TransactionRestController {
                                 paymentType));
 
     }
+    @PostMapping("/batch")
+    public TransactionBatchResult createTransactions(@RequestBody List<NewTransactionPayload> payloads) {
+        if(payloads.isEmpty() || payloads.size() > transactionBatchProperties.maxItems()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch size must be between 1 and " + transactionBatchProperties.maxItems());
+        }
+        return transactionalService.createTransactions(payloads);
+    }
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public TransactionIngestSummary ingestTransactions(InputStream body) {
+        return transactionStreamIngester.ingest(body);
+    }
+    @PostMapping(value = "/import/csv", consumes = TEXT_CSV_VALUE)
+    public TransactionIngestSummary importTransactions(InputStream body) {
+        return transactionCsvImporter.importCsv(body);
+    }
+
+    private void checkPage(int after, int limit) {
+        if(after < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "After must not be negative");
+        }
+        if(limit <= 0 || limit > paginationProperties.maxLimit()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + paginationProperties.maxLimit());
+        }
+    }
+
+    private PaymentType parsePaymentType(String paymentType) {
+        try {
+            return PaymentType.valueOf(paymentType.toUpperCase());
+        }
+        catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid payment type");
+        }
+    }
 }
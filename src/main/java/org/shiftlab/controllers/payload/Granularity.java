@@ -0,0 +1,15 @@
+package org.shiftlab.controllers.payload;
+
+public enum Granularity {
+    HOUR,
+    DAY,
+    WEEK;
+
+    public static Granularity fromString(String granularity) {
+        try {
+            return Granularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException();
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package org.shiftlab.controllers.payload;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
 
-public record NewTransactionPayload(@NotNull Integer sellerId, @Positive @NotNull BigDecimal amount, @NotNull String paymentType) {
+public record NewTransactionPayload(@NotNull Integer sellerId, @Positive @Digits(integer = 13, fraction = 2) @NotNull BigDecimal amount, @NotNull String paymentType) {
 }
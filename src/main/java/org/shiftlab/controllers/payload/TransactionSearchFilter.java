@@ -0,0 +1,18 @@
+package org.shiftlab.controllers.payload;
+
+import org.shiftlab.dto.PaymentType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Optional search conditions, {@code null} means no condition. {@code dateFrom} is inclusive and
+ * {@code dateTo} exclusive, the amount bounds are inclusive.
+ */
+public record TransactionSearchFilter(Integer sellerId,
+                                      LocalDateTime dateFrom,
+                                      LocalDateTime dateTo,
+                                      PaymentType paymentType,
+                                      BigDecimal amountFrom,
+                                      BigDecimal amountTo) {
+}
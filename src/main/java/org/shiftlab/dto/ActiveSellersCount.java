@@ -0,0 +1,4 @@
+package org.shiftlab.dto;
+
+public record ActiveSellersCount(long count, double relativeStandardError) {
+}
@@ -0,0 +1,6 @@
+package org.shiftlab.dto;
+
+import java.math.BigDecimal;
+
+public record ApproximateSellerTotal(Integer sellerId, BigDecimal total, BigDecimal maxOverestimate) {
+}
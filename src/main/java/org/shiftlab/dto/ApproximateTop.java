@@ -0,0 +1,7 @@
+package org.shiftlab.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ApproximateTop(List<ApproximateSellerTotal> sellers, BigDecimal maxUntrackedTotal) {
+}
@@ -0,0 +1,23 @@
+package org.shiftlab.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of rows ordered by id. {@code next} is the {@code after} value for the following page and is
+ * {@code null} when this page is the last one.
+ */
+public record KeysetPage<T>(List<T> items, Integer next) {
+
+    /**
+     * Builds a page from up to {@code limit + 1} rows: the extra row is only fetched to tell whether a following
+     * page exists and is not returned.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, Integer> id) {
+        if(rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new KeysetPage<>(items, id.apply(items.get(limit - 1)));
+    }
+}
@@ -0,0 +1,6 @@
+package org.shiftlab.dto;
+
+import java.math.BigDecimal;
+
+public record PaymentTypeStats(PaymentType paymentType, long count, BigDecimal sum, BigDecimal average) {
+}
@@ -0,0 +1,4 @@
+package org.shiftlab.dto;
+
+public record SellerBestPeriod(Integer sellerId, BestPeriod bestPeriod) {
+}
@@ -1,6 +1,7 @@
 package org.shiftlab.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,6 +14,7 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@JsonPropertyOrder({"id", "name", "contactInfo", "registrationDate", "transactions"})
 public class SellerDto {
     private Integer id;
     private String name;
@@ -20,4 +22,8 @@ public class SellerDto {
     private LocalDateTime registrationDate;
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<TransactionDto> transactions;
+
+    public SellerDto(Integer id, String name, String contactInfo, LocalDateTime registrationDate) {
+        this(id, name, contactInfo, registrationDate, null);
+    }
 }
@@ -0,0 +1,6 @@
+package org.shiftlab.dto;
+
+import java.math.BigDecimal;
+
+public record SellerTotal(Integer sellerId, BigDecimal total) {
+}
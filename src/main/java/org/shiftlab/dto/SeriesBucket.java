@@ -0,0 +1,7 @@
+package org.shiftlab.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record SeriesBucket(LocalDateTime start, long count, BigDecimal sum) {
+}
@@ -0,0 +1,4 @@
+package org.shiftlab.dto;
+
+public record TransactionBatchError(int index, String message) {
+}
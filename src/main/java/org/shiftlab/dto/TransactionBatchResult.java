@@ -0,0 +1,6 @@
+package org.shiftlab.dto;
+
+import java.util.List;
+
+public record TransactionBatchResult(List<Integer> ids, List<TransactionBatchError> errors) {
+}
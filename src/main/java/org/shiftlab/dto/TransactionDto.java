@@ -1,5 +1,6 @@
 package org.shiftlab.dto;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@JsonPropertyOrder({"id", "amount", "paymentType", "transactionDate", "sellerId"})
 
 public class TransactionDto {
     private Integer id;
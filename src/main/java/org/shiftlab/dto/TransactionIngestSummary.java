@@ -0,0 +1,6 @@
+package org.shiftlab.dto;
+
+import java.util.List;
+
+public record TransactionIngestSummary(long accepted, long rejected, List<TransactionBatchError> errors) {
+}
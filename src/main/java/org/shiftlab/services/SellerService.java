@@ -1,20 +1,41 @@
 package org.shiftlab.services;
 
+import org.shiftlab.controllers.payload.Granularity;
+import org.shiftlab.controllers.payload.Period;
+import org.shiftlab.dto.ActiveSellersCount;
+import org.shiftlab.dto.ApproximateTop;
 import org.shiftlab.dto.BestPeriod;
+import org.shiftlab.dto.KeysetPage;
+import org.shiftlab.dto.SellerBestPeriod;
 import org.shiftlab.dto.SellerDto;
+import org.shiftlab.dto.SellerTotal;
+import org.shiftlab.dto.SeriesBucket;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface SellerService {
     List<SellerDto> findAllSellers();
+    KeysetPage<SellerDto> findSellersAfter(int after, int limit);
     SellerDto createSeller(String name,String contactInfo);
     Optional<SellerDto> findSellerById(int id);
+    Optional<Long> findSellerVersion(int id);
+    Optional<SellerDto> findSellerWithTransactionsById(int id);
     void updateSeller(int id, String name, String contactInfo);
     void deleteSellerById(int id);
     List<SellerDto> findSellersFilteredByDateAndSumma(BigDecimal summa, LocalDateTime timeFrom, LocalDateTime timeTo);
     Optional<SellerDto> findMostProductiveSellerByDate(LocalDateTime timeFrom, LocalDateTime timeTo);
+    List<SellerDto> findMostProductiveSellersByDate(LocalDateTime timeFrom, LocalDateTime timeTo, int limit);
     BestPeriod findBestPeriodOfSeller(int id);
+    void checkSellersExist(Collection<Integer> sellerIds);
+    void computeBestPeriods(Collection<Integer> sellerIds, Consumer<SellerBestPeriod> consumer);
+    List<SeriesBucket> findSellerSeries(int id, Granularity granularity, LocalDate dateFrom, LocalDate dateTo);
+    List<SellerTotal> findTopSellers(Period period, int limit);
+    ApproximateTop findMostProductiveSellersApproximately(Period period, int limit);
+    ActiveSellersCount countActiveSellers(Period period, boolean approximate);
 }
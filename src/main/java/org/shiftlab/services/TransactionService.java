@@ -1,15 +1,32 @@
 package org.shiftlab.services;
 
+import org.shiftlab.controllers.payload.NewTransactionPayload;
+import org.shiftlab.controllers.payload.TransactionSearchFilter;
+import org.shiftlab.dto.KeysetPage;
 import org.shiftlab.dto.PaymentType;
+import org.shiftlab.dto.PaymentTypeStats;
+import org.shiftlab.dto.TransactionBatchResult;
 import org.shiftlab.dto.TransactionDto;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TransactionService {
     List<TransactionDto> findAllTransactions();
+    KeysetPage<TransactionDto> findTransactionsAfter(int after, int limit);
+    void exportTransactions(Consumer<TransactionDto> consumer);
+    long exportTransactionsCsv(Integer sellerId, LocalDateTime dateFrom, LocalDateTime dateTo, OutputStream outputStream);
+    KeysetPage<TransactionDto> findSellerTransactionsAfter(int sellerId, int after, int limit);
+    KeysetPage<TransactionDto> searchTransactions(TransactionSearchFilter filter, int after, int limit);
     TransactionDto createTransaction(int sellerId, BigDecimal amount, PaymentType paymentType);
+    TransactionBatchResult createTransactions(List<NewTransactionPayload> payloads);
     Optional<TransactionDto> findTransactionById(int id);
+    Optional<Long> findTransactionVersion(int id);
+    List<PaymentTypeStats> findPaymentTypeStats(LocalDate dateFrom, LocalDate dateTo, Integer sellerId);
 
 }
@@ -0,0 +1,112 @@
+package org.shiftlab.services.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.shiftlab.config.ApproximateAnalyticsProperties;
+import org.shiftlab.controllers.payload.Period;
+import org.shiftlab.dto.ActiveSellersCount;
+import org.shiftlab.dto.ApproximateSellerTotal;
+import org.shiftlab.dto.ApproximateTop;
+import org.shiftlab.services.analytics.sketch.HyperLogLog;
+import org.shiftlab.services.analytics.sketch.SpaceSaving;
+import org.shiftlab.services.event.SellerDeletedEvent;
+import org.shiftlab.services.event.TransactionCreatedEvent;
+import org.shiftlab.services.event.TransactionsImportedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Fixed-size sketches per {@link Period} bucket: Space-Saving for the heaviest sellers by amount and
+ * HyperLogLog for the number of distinct active sellers. A bucket is seeded from the daily rollup when it
+ * is first read or its period rolls over by streaming the daily rollup, and updated from transaction events
+ * afterwards. Events of transactions already in the seed are recognised by their rollup count; to keep the
+ * memory fixed, seeded counts are only kept for today and yesterday, the only days an event still in flight
+ * during the seed can normally belong to.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApproximateSellerStats {
+    private final DailyAmountsReader dailyAmountsReader;
+    private final ApproximateAnalyticsProperties properties;
+    private final Clock clock;
+
+    private final Map<Period, Bucket> buckets = new EnumMap<>(Period.class);
+
+    public synchronized ApproximateTop top(Period period, int limit) {
+        SpaceSaving heavyHitters = bucket(period).heavyHitters;
+        return new ApproximateTop(
+                heavyHitters.top(limit).stream()
+                        .map(counter -> new ApproximateSellerTotal(counter.key(), counter.estimate(), counter.error()))
+                        .toList(),
+                heavyHitters.maxError());
+    }
+
+    public synchronized ActiveSellersCount activeSellers(Period period) {
+        HyperLogLog activeSellers = bucket(period).activeSellers;
+        return new ActiveSellersCount(activeSellers.estimate(), activeSellers.relativeStandardError());
+    }
+
+    @TransactionalEventListener
+    public synchronized void onTransactionCreated(TransactionCreatedEvent event) {
+        LocalDate day = event.transactionDate().toLocalDate();
+        buckets.forEach((period, bucket) -> {
+            if(bucket.from.equals(startOf(period)) && !day.isBefore(bucket.from)
+                    && !bucket.seededCounts.contains(event)) {
+                bucket.add(event.sellerId(), event.amount());
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public synchronized void onTransactionsImported(TransactionsImportedEvent event) {
+        buckets.clear();
+    }
+
+    @TransactionalEventListener
+    public synchronized void onSellerDeleted(SellerDeletedEvent event) {
+        buckets.clear();
+    }
+
+    private Bucket bucket(Period period) {
+        LocalDate from = startOf(period);
+        Bucket bucket = buckets.get(period);
+        if(bucket == null || !bucket.from.equals(from)) {
+            Bucket seeded = new Bucket(from);
+            LocalDate recentFrom = LocalDate.now(clock).minusDays(1);
+            dailyAmountsReader.streamFrom(from, row -> {
+                seeded.add(row.sellerId(), row.amount());
+                if(!row.day().isBefore(recentFrom)) {
+                    seeded.seededCounts.put(row.sellerId(), row.day(), row.paymentType(), row.count());
+                }
+            });
+            bucket = seeded;
+            buckets.put(period, bucket);
+        }
+        return bucket;
+    }
+
+    private LocalDate startOf(Period period) {
+        return period.getStartDate(clock).toLocalDate();
+    }
+
+    private final class Bucket {
+        private final LocalDate from;
+        private final SeededDailyCounts seededCounts = new SeededDailyCounts();
+        private final SpaceSaving heavyHitters = new SpaceSaving(properties.heavyHitterCapacity());
+        private final HyperLogLog activeSellers = new HyperLogLog(properties.hyperLogLogPrecision());
+
+        private Bucket(LocalDate from) {
+            this.from = from;
+        }
+
+        private void add(int sellerId, BigDecimal amount) {
+            heavyHitters.add(sellerId, amount);
+            activeSellers.add(sellerId);
+        }
+    }
+}
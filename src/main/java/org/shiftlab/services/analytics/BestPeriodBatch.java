@@ -0,0 +1,77 @@
+package org.shiftlab.services.analytics;
+
+import org.shiftlab.dto.SellerBestPeriod;
+import org.shiftlab.store.projection.SellerDailyCount;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Computes best periods for many sellers from one stream of daily counts ordered by seller and day.
+ * Each seller's days are handed to the fork-join pool as soon as the next seller starts, and results are
+ * passed to the consumer on the calling thread in completion order. At most {@code 4 * parallelism}
+ * sellers are in flight, so memory does not grow with the number of sellers. A seller without transactions
+ * comes as a single row with a {@code null} day and gets an empty best period.
+ */
+public final class BestPeriodBatch {
+
+    private BestPeriodBatch() {
+    }
+
+    public static void compute(Iterator<SellerDailyCount> dailyCounts, ForkJoinPool pool, Consumer<SellerBestPeriod> consumer) {
+        CompletionService<SellerBestPeriod> completionService = new ExecutorCompletionService<>(pool);
+        int maxInFlight = pool.getParallelism() * 4;
+        int inFlight = 0;
+        List<SellerDailyCount> days = new ArrayList<>();
+        try {
+            while (dailyCounts.hasNext()) {
+                SellerDailyCount dailyCount = dailyCounts.next();
+                if(!days.isEmpty() && !days.get(0).sellerId().equals(dailyCount.sellerId())) {
+                    if(inFlight == maxInFlight) {
+                        consumer.accept(completionService.take().get());
+                        inFlight--;
+                    }
+                    submit(completionService, days);
+                    inFlight++;
+                    days = new ArrayList<>();
+                }
+                days.add(dailyCount);
+                for(Future<SellerBestPeriod> done = completionService.poll(); done != null; done = completionService.poll()) {
+                    consumer.accept(done.get());
+                    inFlight--;
+                }
+            }
+            if(!days.isEmpty()) {
+                submit(completionService, days);
+                inFlight++;
+            }
+            for(; inFlight > 0; inFlight--) {
+                consumer.accept(completionService.take().get());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Best period batch interrupted", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("Best period calculation failed", e.getCause());
+        }
+    }
+
+    private static void submit(CompletionService<SellerBestPeriod> completionService, List<SellerDailyCount> days) {
+        completionService.submit(() -> {
+            BestPeriodState state = new BestPeriodState();
+            days.stream()
+                    .filter(day -> day.day() != null)
+                    .forEach(day -> state.append(day.day(), day.count()));
+            return new SellerBestPeriod(days.get(0).sellerId(), state.getBestPeriod());
+        });
+    }
+}
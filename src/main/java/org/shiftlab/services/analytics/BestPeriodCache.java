@@ -0,0 +1,54 @@
+package org.shiftlab.services.analytics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.shiftlab.config.BestPeriodCacheProperties;
+import org.shiftlab.services.event.SellerDeletedEvent;
+import org.shiftlab.services.event.TransactionCreatedEvent;
+import org.shiftlab.services.event.TransactionsImportedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Function;
+
+@Component
+public class BestPeriodCache {
+    private final Cache<Integer, BestPeriodState> cache;
+
+    public BestPeriodCache(BestPeriodCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.timeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "bestPeriods");
+    }
+
+    public BestPeriodState get(int sellerId, Function<Integer, BestPeriodState> loader) {
+        return cache.get(sellerId, loader);
+    }
+
+    public void invalidate(int sellerId) {
+        cache.invalidate(sellerId);
+    }
+
+    @TransactionalEventListener
+    public void onTransactionCreated(TransactionCreatedEvent event) {
+        cache.asMap().computeIfPresent(event.sellerId(), (sellerId, state) -> state.applyDailyCount(
+                event.transactionDate().toLocalDate(),
+                event.paymentType(),
+                event.dailyPaymentTypeCount()) ? state : null);
+    }
+
+    @TransactionalEventListener
+    public void onTransactionsImported(TransactionsImportedEvent event) {
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener
+    public void onSellerDeleted(SellerDeletedEvent event) {
+        invalidate(event.sellerId());
+    }
+}
@@ -0,0 +1,33 @@
+package org.shiftlab.services.analytics;
+
+import org.shiftlab.dto.BestPeriod;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Maximizes {@code count^2 / days} over per-day transaction counts. For a fixed last day only
+ * vertices of the lower convex hull of {@code (day, transactionsBefore)} points can start the best
+ * period, so the hull is kept on a stack and scanned backwards until the score bound drops below the best.
+ */
+public final class BestPeriodCalculator {
+
+    private BestPeriodCalculator() {
+    }
+
+    public static BestPeriod calculate(Collection<LocalDate> transactionDates) {
+        SortedMap<LocalDate, Long> transactionsPerDay = new TreeMap<>();
+        for (LocalDate date : transactionDates) {
+            transactionsPerDay.merge(date, 1L, Long::sum);
+        }
+        return calculate(transactionsPerDay);
+    }
+
+    public static BestPeriod calculate(SortedMap<LocalDate, Long> transactionsPerDay) {
+        BestPeriodState state = new BestPeriodState();
+        transactionsPerDay.forEach(state::append);
+        return state.getBestPeriod();
+    }
+}
@@ -0,0 +1,147 @@
+package org.shiftlab.services.analytics;
+
+import org.shiftlab.dto.BestPeriod;
+import org.shiftlab.dto.PaymentType;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Incremental form of {@link BestPeriodCalculator} for one seller. Days can only be appended at the end;
+ * each append rescans the lower hull for periods ending at the last day, so the cost does not depend on
+ * the number of transactions. Returns {@code false} from the update methods when a day arrives out of
+ * order and the state has to be rebuilt.
+ */
+public class BestPeriodState {
+    private long[] days = new long[16];
+    private long[] prefix = new long[17];
+    private int[] hull = new int[16];
+    private int size;
+    private int hullSize;
+
+    private double bestScore;
+    private long bestCount;
+    private long bestDuration;
+    private BestPeriod bestPeriod = new BestPeriod();
+
+    private final Map<PaymentType, Long> lastDayCounts = new EnumMap<>(PaymentType.class);
+
+    public synchronized boolean applyDailyCount(LocalDate day, PaymentType paymentType, long dailyCount) {
+        if(size > 0 && day.toEpochDay() < days[size - 1]) {
+            return false;
+        }
+        if(size == 0 || day.toEpochDay() > days[size - 1]) {
+            lastDayCounts.clear();
+        }
+        long known = lastDayCounts.getOrDefault(paymentType, 0L);
+        if(dailyCount <= known) {
+            return true;
+        }
+        lastDayCounts.put(paymentType, dailyCount);
+        return append(day, dailyCount - known);
+    }
+
+    public synchronized boolean append(LocalDate date, long count) {
+        long day = date.toEpochDay();
+        if(size > 0 && day < days[size - 1]) {
+            return false;
+        }
+        long previousTotal = prefix[size];
+        if(size == 0 || day > days[size - 1]) {
+            ensureCapacity();
+            days[size] = day;
+            prefix[size + 1] = prefix[size] + count;
+            size++;
+            while (hullSize >= 2 && cross(hull[hullSize - 2], hull[hullSize - 1], size - 1) < 0) {
+                hullSize--;
+            }
+            hull[hullSize++] = size - 1;
+        } else {
+            prefix[size] += count;
+        }
+
+        long previousCount = bestCount;
+        long previousDuration = bestDuration;
+        scanPeriodsEndingAt(size - 1);
+        if(bestCount != previousCount || bestDuration != previousDuration) {
+            bestPeriod = null;
+        } else if(bestPeriod != null) {
+            checkNewWindows(previousTotal);
+        }
+        return true;
+    }
+
+    public synchronized BestPeriod getBestPeriod() {
+        if(bestPeriod == null) {
+            bestPeriod = latestWindow();
+        }
+        return bestPeriod;
+    }
+
+    private void scanPeriodsEndingAt(int end) {
+        long total = prefix[end + 1];
+        for(int h = hullSize - 1; h >= 0; h--) {
+            int start = hull[h];
+            long duration = days[end] - days[start] + 1;
+            if((double) total * total / duration < bestScore) {
+                break;
+            }
+            long count = total - prefix[start];
+            double score = evaluationFunction(count, duration);
+            if(score > bestScore || (score == bestScore && count < bestCount)) {
+                bestScore = score;
+                bestCount = count;
+                bestDuration = duration;
+            }
+        }
+    }
+
+    private void checkNewWindows(long previousTotal) {
+        long total = prefix[size];
+        for(long first = total - bestCount; first >= Math.max(0, previousTotal - bestCount + 1); first--) {
+            int start = dayOfTransaction(first);
+            int end = dayOfTransaction(first + bestCount - 1);
+            if(days[end] - days[start] + 1 == bestDuration) {
+                bestPeriod = period(start, end);
+                return;
+            }
+        }
+    }
+
+    private BestPeriod latestWindow() {
+        for(int start = dayOfTransaction(prefix[size] - bestCount); start >= 0; start--) {
+            int end = dayOfTransaction(prefix[start] + bestCount - 1);
+            if(days[end] - days[start] + 1 == bestDuration) {
+                return period(start, end);
+            }
+        }
+        throw new IllegalStateException("Best period window not found");
+    }
+
+    private BestPeriod period(int start, int end) {
+        return new BestPeriod(LocalDate.ofEpochDay(days[start]), LocalDate.ofEpochDay(days[end]), (int) bestCount);
+    }
+
+    private int dayOfTransaction(long transaction) {
+        int position = Arrays.binarySearch(prefix, 0, size + 1, transaction + 1);
+        return position >= 0 ? position - 1 : -position - 2;
+    }
+
+    private long cross(int o, int a, int b) {
+        return (days[a] - days[o]) * (prefix[b] - prefix[o]) - (prefix[a] - prefix[o]) * (days[b] - days[o]);
+    }
+
+    private void ensureCapacity() {
+        if(size == days.length) {
+            days = Arrays.copyOf(days, size * 2);
+            prefix = Arrays.copyOf(prefix, size * 2 + 1);
+            hull = Arrays.copyOf(hull, size * 2);
+        }
+    }
+
+    private static double evaluationFunction(long countOfTransactions, long period) {
+        return (double) countOfTransactions * countOfTransactions / period;
+    }
+}
@@ -0,0 +1,30 @@
+package org.shiftlab.services.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.shiftlab.store.projection.SellerDailyPaymentTypeAmount;
+import org.shiftlab.store.repos.SellerDailyStatsRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams rollup rows for seeding in-memory aggregates, so a seed never holds the whole result in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyAmountsReader {
+    private final SellerDailyStatsRepository sellerDailyStatsRepository;
+
+    /**
+     * Passes the rollup rows from {@code dayFrom} on to the consumer one by one, from a single query snapshot.
+     */
+    @Transactional(readOnly = true)
+    public void streamFrom(LocalDate dayFrom, Consumer<SellerDailyPaymentTypeAmount> consumer) {
+        try (Stream<SellerDailyPaymentTypeAmount> rows = sellerDailyStatsRepository.streamDailyAmountsFrom(dayFrom)) {
+            rows.forEach(consumer);
+        }
+    }
+}
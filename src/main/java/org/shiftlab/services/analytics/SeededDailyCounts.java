@@ -0,0 +1,43 @@
+package org.shiftlab.services.analytics;
+
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.services.event.TransactionCreatedEvent;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Rollup counts per seller, day and payment type as read by a seed. The rollup row is incremented under its
+ * row lock, so every transaction gets its own {@code dailyPaymentTypeCount} in commit order; an event whose
+ * count is not above the seeded one belongs to a transaction that is already in the seed, whatever its id.
+ */
+final class SeededDailyCounts {
+    private final NavigableMap<LocalDate, Map<Key, Long>> counts = new TreeMap<>();
+
+    void put(int sellerId, LocalDate day, PaymentType paymentType, long count) {
+        counts.computeIfAbsent(day, d -> new HashMap<>()).put(new Key(sellerId, paymentType), count);
+    }
+
+    boolean contains(TransactionCreatedEvent event) {
+        Map<Key, Long> dayCounts = counts.get(event.transactionDate().toLocalDate());
+        if(dayCounts == null) {
+            return false;
+        }
+        Long seeded = dayCounts.get(new Key(event.sellerId(), event.paymentType()));
+        return seeded != null && event.dailyPaymentTypeCount() <= seeded;
+    }
+
+    void removeBefore(LocalDate day) {
+        counts.headMap(day, false).clear();
+    }
+
+    void clear() {
+        counts.clear();
+    }
+
+    private record Key(int sellerId, PaymentType paymentType) {
+    }
+}
@@ -0,0 +1,150 @@
+package org.shiftlab.services.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.shiftlab.config.LeaderboardProperties;
+import org.shiftlab.controllers.payload.Period;
+import org.shiftlab.dto.SellerTotal;
+import org.shiftlab.services.event.SellerDeletedEvent;
+import org.shiftlab.services.event.TransactionCreatedEvent;
+import org.shiftlab.services.event.TransactionsImportedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Running per-seller totals for every {@link Period} window, kept in memory. Daily totals since the
+ * earliest window start are retained so a window can be rebuilt without the database when it rolls over.
+ * Events of transactions already in the seed are recognised by their rollup count and skipped.
+ */
+@Component
+@RequiredArgsConstructor
+public class SellerLeaderboard {
+    private static final Comparator<SellerTotal> RANKING_ORDER = Comparator
+            .comparing(SellerTotal::total, Comparator.reverseOrder())
+            .thenComparing(SellerTotal::sellerId);
+
+    private final DailyAmountsReader dailyAmountsReader;
+    private final LeaderboardProperties leaderboardProperties;
+    private final Clock clock;
+
+    private final NavigableMap<LocalDate, Map<Integer, BigDecimal>> dailyTotals = new TreeMap<>();
+    private final Map<Period, Ranking> rankings = new EnumMap<>(Period.class);
+    private final SeededDailyCounts seededCounts = new SeededDailyCounts();
+    private boolean seeded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        if(leaderboardProperties.seedOnStartup()) {
+            seed();
+        }
+    }
+
+    public synchronized void seed() {
+        dailyTotals.clear();
+        rankings.clear();
+        seededCounts.clear();
+        dailyAmountsReader.streamFrom(earliestStart(), row -> {
+            dailyTotals.computeIfAbsent(row.day(), day -> new HashMap<>())
+                    .merge(row.sellerId(), row.amount(), BigDecimal::add);
+            seededCounts.put(row.sellerId(), row.day(), row.paymentType(), row.count());
+        });
+        seeded = true;
+        rollOver();
+    }
+
+    public synchronized List<SellerTotal> top(Period period, int limit) {
+        if(!seeded) {
+            seed();
+        } else {
+            rollOver();
+        }
+        return rankings.get(period).top(limit);
+    }
+
+    @TransactionalEventListener
+    public synchronized void onTransactionCreated(TransactionCreatedEvent event) {
+        if(!seeded || seededCounts.contains(event)) {
+            return;
+        }
+        rollOver();
+        LocalDate day = event.transactionDate().toLocalDate();
+        if(!day.isBefore(earliestStart())) {
+            dailyTotals.computeIfAbsent(day, d -> new HashMap<>())
+                    .merge(event.sellerId(), event.amount(), BigDecimal::add);
+        }
+        for(Ranking ranking : rankings.values()) {
+            if(!day.isBefore(ranking.from)) {
+                ranking.add(event.sellerId(), event.amount());
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public synchronized void onTransactionsImported(TransactionsImportedEvent event) {
+        seeded = false;
+    }
+
+    @TransactionalEventListener
+    public synchronized void onSellerDeleted(SellerDeletedEvent event) {
+        dailyTotals.values().forEach(totals -> totals.remove(event.sellerId()));
+        rankings.values().forEach(ranking -> ranking.remove(event.sellerId()));
+    }
+
+    private void rollOver() {
+        for(Period period : Period.values()) {
+            LocalDate from = period.getStartDate(clock).toLocalDate();
+            Ranking ranking = rankings.get(period);
+            if(ranking == null || !ranking.from.equals(from)) {
+                Ranking rebuilt = new Ranking(from);
+                dailyTotals.tailMap(from, true).values().forEach(totals -> totals.forEach(rebuilt::add));
+                rankings.put(period, rebuilt);
+            }
+        }
+        dailyTotals.headMap(earliestStart(), false).clear();
+        seededCounts.removeBefore(earliestStart());
+    }
+
+    private LocalDate earliestStart() {
+        return Arrays.stream(Period.values())
+                .map(period -> period.getStartDate(clock).toLocalDate())
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+    }
+
+    private static final class Ranking {
+        private final LocalDate from;
+        private final Map<Integer, BigDecimal> totals = new HashMap<>();
+        private final TreeSet<SellerTotal> ordered = new TreeSet<>(RANKING_ORDER);
+
+        private Ranking(LocalDate from) {
+            this.from = from;
+        }
+
+        private void add(Integer sellerId, BigDecimal amount) {
+            BigDecimal previous = totals.get(sellerId);
+            if(previous != null) {
+                ordered.remove(new SellerTotal(sellerId, previous));
+            }
+            BigDecimal total = previous == null ? amount : previous.add(amount);
+            totals.put(sellerId, total);
+            ordered.add(new SellerTotal(sellerId, total));
+        }
+
+        private void remove(Integer sellerId) {
+            BigDecimal previous = totals.remove(sellerId);
+            if(previous != null) {
+                ordered.remove(new SellerTotal(sellerId, previous));
+            }
+        }
+
+        private List<SellerTotal> top(int limit) {
+            return ordered.stream().limit(limit).toList();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.shiftlab.services.analytics.sketch;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Weighted Space-Saving heavy-hitters sketch with a fixed number of counters. A tracked estimate never
+ * underestimates and overestimates by at most its {@link Counter#error()}; any untracked key has a true
+ * weight of at most {@link #maxError()}, which is bounded by {@code totalWeight / capacity}.
+ */
+public class SpaceSaving {
+    private static final Comparator<Counter> ORDER = Comparator
+            .comparing(Counter::estimate)
+            .thenComparing(Counter::key, Comparator.reverseOrder());
+
+    private final int capacity;
+    private final Map<Integer, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> ordered = new TreeSet<>(ORDER);
+    private BigDecimal totalWeight = BigDecimal.ZERO;
+
+    public SpaceSaving(int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    public void add(int key, BigDecimal weight) {
+        totalWeight = totalWeight.add(weight);
+        Counter counter = counters.get(key);
+        if(counter != null) {
+            ordered.remove(counter);
+            put(new Counter(key, counter.estimate().add(weight), counter.error()));
+        } else if(counters.size() < capacity) {
+            put(new Counter(key, weight, BigDecimal.ZERO));
+        } else {
+            Counter min = ordered.pollFirst();
+            counters.remove(min.key());
+            put(new Counter(key, min.estimate().add(weight), min.estimate()));
+        }
+    }
+
+    public List<Counter> top(int limit) {
+        return ordered.descendingSet().stream().limit(limit).toList();
+    }
+
+    public BigDecimal maxError() {
+        return counters.size() < capacity ? BigDecimal.ZERO : ordered.first().estimate();
+    }
+
+    public BigDecimal totalWeight() {
+        return totalWeight;
+    }
+
+    private void put(Counter counter) {
+        counters.put(counter.key(), counter);
+        ordered.add(counter);
+    }
+
+    public record Counter(int key, BigDecimal estimate, BigDecimal error) {
+    }
+}
@@ -0,0 +1,52 @@
+package org.shiftlab.services.etag;
+
+import org.shiftlab.services.event.SellerDeletedEvent;
+import org.shiftlab.services.event.SellerSavedEvent;
+import org.shiftlab.services.event.TransactionCreatedEvent;
+import org.shiftlab.services.event.TransactionsImportedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strong ETags for whole-table responses. A counter per table is bumped after every committed write, so a
+ * token read before the data is never newer than the data. The random epoch keeps tokens from repeating
+ * after a restart.
+ */
+@Component
+public class TableChangeTokens {
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong sellers = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+
+    public String sellers() {
+        return "\"s-" + epoch + "-" + sellers.get() + "\"";
+    }
+
+    public String transactions() {
+        return "\"t-" + epoch + "-" + transactions.get() + "\"";
+    }
+
+    @TransactionalEventListener
+    public void onSellerSaved(SellerSavedEvent event) {
+        sellers.incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onSellerDeleted(SellerDeletedEvent event) {
+        sellers.incrementAndGet();
+        transactions.incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onTransactionCreated(TransactionCreatedEvent event) {
+        transactions.incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onTransactionsImported(TransactionsImportedEvent event) {
+        transactions.incrementAndGet();
+    }
+}
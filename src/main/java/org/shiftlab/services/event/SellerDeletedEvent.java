@@ -0,0 +1,4 @@
+package org.shiftlab.services.event;
+
+public record SellerDeletedEvent(int sellerId) {
+}
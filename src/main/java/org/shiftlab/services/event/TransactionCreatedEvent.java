@@ -0,0 +1,14 @@
+package org.shiftlab.services.event;
+
+import org.shiftlab.dto.PaymentType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record TransactionCreatedEvent(Integer transactionId,
+                                      int sellerId,
+                                      BigDecimal amount,
+                                      PaymentType paymentType,
+                                      LocalDateTime transactionDate,
+                                      long dailyPaymentTypeCount) {
+}
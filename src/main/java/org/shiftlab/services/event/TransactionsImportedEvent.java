@@ -0,0 +1,8 @@
+package org.shiftlab.services.event;
+
+/**
+ * Published instead of one {@link TransactionCreatedEvent} per row when transactions are loaded in bulk.
+ * Listeners drop or rebuild their in-memory state from the rollups.
+ */
+public record TransactionsImportedEvent(long count) {
+}
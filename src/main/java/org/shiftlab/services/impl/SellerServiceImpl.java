@@ -1,23 +1,51 @@
 package org.shiftlab.services.impl;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.shiftlab.controllers.payload.Granularity;
+import org.shiftlab.controllers.payload.Period;
+import org.shiftlab.dto.ActiveSellersCount;
+import org.shiftlab.dto.ApproximateTop;
 import org.shiftlab.dto.BestPeriod;
+import org.shiftlab.dto.KeysetPage;
+import org.shiftlab.dto.SellerBestPeriod;
 import org.shiftlab.dto.SellerDto;
+import org.shiftlab.dto.SellerTotal;
+import org.shiftlab.dto.SeriesBucket;
 import org.shiftlab.exceptions.SellerNotFoundException;
 import org.shiftlab.services.SellerService;
+import org.shiftlab.services.analytics.ApproximateSellerStats;
+import org.shiftlab.services.analytics.BestPeriodBatch;
+import org.shiftlab.services.analytics.BestPeriodCache;
+import org.shiftlab.services.analytics.BestPeriodState;
+import org.shiftlab.services.analytics.SellerLeaderboard;
+import org.shiftlab.services.event.SellerDeletedEvent;
+import org.shiftlab.services.event.SellerSavedEvent;
 import org.shiftlab.services.mapper.EntityDtoMapper;
+import org.shiftlab.services.registry.SellerRegistry;
 import org.shiftlab.store.entity.SellerEntity;
-import org.shiftlab.store.entity.TransactionEntity;
+import org.shiftlab.store.projection.DailyTotals;
+import org.shiftlab.store.projection.SellerDailyCount;
+import org.shiftlab.store.repos.SellerDailyStatsRepository;
+import org.shiftlab.store.repos.SellerHourlyStatsRepository;
 import org.shiftlab.store.repos.SellerRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Clock;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 
@@ -25,20 +53,28 @@ import java.util.*;
 @RequiredArgsConstructor
 public class SellerServiceImpl implements SellerService{
     private final SellerRepository sellerRepository;
+    private final SellerRegistry sellerRegistry;
+    private final SellerDailyStatsRepository sellerDailyStatsRepository;
+    private final SellerHourlyStatsRepository sellerHourlyStatsRepository;
+    private final SellerLeaderboard sellerLeaderboard;
+    private final ApproximateSellerStats approximateSellerStats;
+    private final BestPeriodCache bestPeriodCache;
     private final EntityDtoMapper entityDtoMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
     private final Clock clock;
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<SellerDto> findAllSellers() {
-        List<SellerEntity> sellers = sellerRepository.findAll();
-
-        return sellers.stream()
-                .map(entityDtoMapper::mapToSellerDto)
-                .toList();
+        return sellerRepository.findAllDtos();
 
     }
     @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<SellerDto> findSellersAfter(int after, int limit) {
+        return KeysetPage.of(sellerRepository.findDtosAfter(after, PageRequest.ofSize(limit + 1)), limit, SellerDto::getId);
+    }
+    @Override
     @Transactional
     public SellerDto createSeller(String name,String contactInfo) {
         var registrationDate = LocalDateTime.now(clock);
@@ -48,14 +84,26 @@ public class SellerServiceImpl implements SellerService{
                         .registrationDate(registrationDate)
                         .contactInfo(contactInfo)
                         .build());
+        sellerRegistry.add(seller.getId());
+        applicationEventPublisher.publishEvent(new SellerSavedEvent(seller.getId()));
         return entityDtoMapper.mapToSellerDto(seller);
 
     }
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public Optional<SellerDto> findSellerById(int id) {
+        return sellerRepository.findById(id).map(entityDtoMapper::mapToSellerDto);
+    }
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findSellerVersion(int id) {
+        return sellerRepository.findById(id).map(SellerEntity::getVersion);
+    }
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<SellerDto> findSellerWithTransactionsById(int id) {
         return sellerRepository
-                .findById(id)
+                .findWithTransactionsById(id)
                 .map(seller -> {
                     var dto = entityDtoMapper.mapToSellerDto(seller);
                     dto.setTransactions(seller.getTransactions().stream().map(entityDtoMapper::mapToTransactionDto).toList());
@@ -74,80 +122,126 @@ public class SellerServiceImpl implements SellerService{
         if(contactInfo != null) {
             sellerEntity.setContactInfo(contactInfo);
         }
+        applicationEventPublisher.publishEvent(new SellerSavedEvent(id));
     }
     @Override
     @Transactional
     public void deleteSellerById(int id) {
-        if(!sellerRepository.existsById(id)) {
-            throw new SellerNotFoundException(id);
-        }
-        sellerRepository.deleteById(id);
+        var sellerEntity = sellerRepository
+                .findById(id)
+                .orElseThrow(()->new SellerNotFoundException(id));
+        sellerRepository.delete(sellerEntity);
+        sellerRegistry.remove(id);
+        applicationEventPublisher.publishEvent(new SellerDeletedEvent(id));
     }
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<SellerDto> findSellersFilteredByDateAndSumma(BigDecimal summa, LocalDateTime timeFrom, LocalDateTime timeTo) {
 
-        return sellerRepository.findAllSellersJoinTransactions().stream().filter((seller)-> seller
-                .getTransactions().stream()
-                        .filter(transaction -> transaction.getRegistrationDate().isBefore(timeTo)&& transaction.getRegistrationDate().isAfter(timeFrom))
-                        .map(TransactionEntity::getAmount)
-                        .reduce(BigDecimal.ZERO,BigDecimal::add).compareTo(summa) < 0)
+        return sellerRepository.findAllSellersWithTransactionsSumLessThan(summa, timeFrom.toLocalDate(), timeTo.toLocalDate()).stream()
                 .map(entityDtoMapper::mapToSellerDto)
                 .toList();
     }
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public Optional<SellerDto> findMostProductiveSellerByDate(LocalDateTime timeFrom, LocalDateTime timeTo) {
+        return findMostProductiveSellersByDate(timeFrom, timeTo, 1).stream().findFirst();
+    }
+    @Override
+    @Transactional(readOnly = true)
+    public List<SellerDto> findMostProductiveSellersByDate(LocalDateTime timeFrom, LocalDateTime timeTo, int limit) {
+        return sellerRepository.findMostProductiveSellers(timeFrom.toLocalDate(), timeTo.toLocalDate(), limit).stream()
+                .map(entityDtoMapper::mapToSellerDto)
+                .toList();
+    }
 
-        return sellerRepository.findAllSellersJoinTransactions().stream()
-                .filter(seller -> {
-                    var transactionCount = seller.getTransactions().stream()
-                            .filter(transaction -> transaction.getRegistrationDate().isBefore(timeTo)
-                                    && transaction.getRegistrationDate().isAfter(timeFrom))
-                            .count();
-                    return transactionCount > 0;
-                }).max(Comparator.comparing((seller)-> seller
-                        .getTransactions().stream()
-                        .filter(transaction -> transaction.getRegistrationDate().isBefore(timeTo)&& transaction.getRegistrationDate().isAfter(timeFrom))
-                        .map(TransactionEntity::getAmount)
-                        .reduce(BigDecimal.ZERO,BigDecimal::add)))
-                .map(entityDtoMapper::mapToSellerDto);
+    @Override
+    public List<SellerTotal> findTopSellers(Period period, int limit) {
+        return sellerLeaderboard.top(period, limit);
     }
 
+    @Override
+    public ApproximateTop findMostProductiveSellersApproximately(Period period, int limit) {
+        return approximateSellerStats.top(period, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ActiveSellersCount countActiveSellers(Period period, boolean approximate) {
+        if(approximate) {
+            return approximateSellerStats.activeSellers(period);
+        }
+        return new ActiveSellersCount(sellerDailyStatsRepository.countActiveSellersFrom(period.getStartDate(clock).toLocalDate()), 0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public BestPeriod findBestPeriodOfSeller(int id) {
-        SellerEntity seller = sellerRepository.findById(id).orElseThrow(()->new SellerNotFoundException(id));
-        List<LocalDate> dates = seller.getTransactions().stream()
-                .sorted(Comparator.comparing(TransactionEntity::getRegistrationDate))
-                .map(transaction -> transaction.getRegistrationDate().toLocalDate())
-                .toList();
-        double evaluation = 0;
-        BestPeriod result = new BestPeriod();
-        for(int count = 1; count <= dates.size(); count++) {
-            Long minDuration = null;
-            LocalDate answerStartPeriod = null;
-            LocalDate answerEndPeriod = null;
-            for(int i = 0; i+ count -1< dates.size(); i++){
-
-                long periodDays = ChronoUnit.DAYS.between(dates.get(i), dates.get(i+ count -1)) + 1;
-
-                if(minDuration==null || periodDays <= minDuration) {
-                    minDuration=periodDays;
-                    answerStartPeriod = dates.get(i);
-                    answerEndPeriod = dates.get(i+ count -1);
-                }
-            }
-            double tmpEvaluation = evaluationFunction(count,minDuration);
-            if(tmpEvaluation>evaluation) {
-                evaluation=tmpEvaluation;
-                result = new BestPeriod(answerStartPeriod,answerEndPeriod,count);
+        return bestPeriodCache.get(id, this::loadBestPeriodState).getBestPeriod();
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<SeriesBucket> findSellerSeries(int id, Granularity granularity, LocalDate dateFrom, LocalDate dateTo) {
+        if(!sellerRepository.existsById(id)) {
+            throw new SellerNotFoundException(id);
+        }
+        if(granularity == Granularity.HOUR) {
+            return sellerHourlyStatsRepository.findHours(id, dateFrom.atStartOfDay(), dateTo.plusDays(1).atStartOfDay()).stream()
+                    .map(hour -> new SeriesBucket(hour.getTransactionHour(), hour.getTransactionCount(), hour.getAmountSum()))
+                    .toList();
+        }
+        List<DailyTotals> days = sellerDailyStatsRepository.findDailyTotals(id, dateFrom, dateTo);
+        if(granularity == Granularity.DAY) {
+            return days.stream()
+                    .map(day -> new SeriesBucket(day.day().atStartOfDay(), day.count(), day.amount()))
+                    .toList();
+        }
+        List<SeriesBucket> weeks = new ArrayList<>();
+        for(DailyTotals day : days) {
+            LocalDate monday = day.day().with(DayOfWeek.MONDAY);
+            LocalDateTime weekStart = (monday.isBefore(dateFrom) ? dateFrom : monday).atStartOfDay();
+            SeriesBucket last = weeks.isEmpty() ? null : weeks.get(weeks.size() - 1);
+            if(last != null && last.start().equals(weekStart)) {
+                weeks.set(weeks.size() - 1, new SeriesBucket(weekStart, last.count() + day.count(), last.sum().add(day.amount())));
+            } else {
+                weeks.add(new SeriesBucket(weekStart, day.count(), day.amount()));
             }
         }
-        return result;
+        return weeks;
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void checkSellersExist(Collection<Integer> sellerIds) {
+        Set<Integer> existing = sellerRepository.findExistingIds(sellerIds);
+        sellerIds.stream()
+                .filter(id -> !existing.contains(id))
+                .findFirst()
+                .ifPresent(id -> {
+                    throw new SellerNotFoundException(id);
+                });
     }
-    private double evaluationFunction(int countOfTransactions, long period) {
-        return (double) countOfTransactions*countOfTransactions/period;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void computeBestPeriods(Collection<Integer> sellerIds, Consumer<SellerBestPeriod> consumer) {
+        try (Stream<SellerDailyCount> dailyCounts = sellerIds == null
+                ? sellerDailyStatsRepository.streamDailyCounts()
+                : sellerDailyStatsRepository.streamDailyCounts(sellerIds)) {
+            BestPeriodBatch.compute(dailyCounts.iterator(), ForkJoinPool.commonPool(), consumer);
+        }
+    }
+
+    private BestPeriodState loadBestPeriodState(int id) {
+        if(!sellerRepository.existsById(id)) {
+            throw new SellerNotFoundException(id);
+        }
+        BestPeriodState state = new BestPeriodState();
+        for(var stats : sellerDailyStatsRepository.findAllBySellerIdOrderByTransactionDay(id)) {
+            state.applyDailyCount(stats.getTransactionDay(), stats.getPaymentType(), stats.getTransactionCount());
+        }
+        return state;
     }
 
 }
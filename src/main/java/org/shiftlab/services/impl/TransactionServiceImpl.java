@@ -1,60 +1,276 @@
 package org.shiftlab.services.impl;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.shiftlab.controllers.payload.NewTransactionPayload;
+import org.shiftlab.controllers.payload.TransactionSearchFilter;
+import org.shiftlab.dto.KeysetPage;
 import org.shiftlab.dto.PaymentType;
+import org.shiftlab.dto.PaymentTypeStats;
+import org.shiftlab.dto.TransactionBatchError;
+import org.shiftlab.dto.TransactionBatchResult;
 import org.shiftlab.dto.TransactionDto;
 import org.shiftlab.exceptions.SellerNotFoundException;
 import org.shiftlab.services.TransactionService;
+import org.shiftlab.services.event.TransactionCreatedEvent;
+import org.shiftlab.services.ingest.TransactionRowWriter;
+import org.shiftlab.services.ingest.WriteBehindTransactionWriter;
 import org.shiftlab.services.mapper.EntityDtoMapper;
+import org.shiftlab.services.registry.SellerRegistry;
 import org.shiftlab.store.entity.TransactionEntity;
+import org.shiftlab.store.repos.SellerDailyStatsRepository;
+import org.shiftlab.store.repos.SellerHourlyStatsRepository;
 import org.shiftlab.store.repos.SellerRepository;
+import org.shiftlab.store.repos.TransactionBatchRepository;
+import org.shiftlab.store.repos.TransactionCopyRepository;
 import org.shiftlab.store.repos.TransactionRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.SQLException;
 import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
     private final TransactionRepository transactionRepository;
     private final SellerRepository sellerRepository;
+    private final SellerRegistry sellerRegistry;
+    private final SellerDailyStatsRepository sellerDailyStatsRepository;
+    private final SellerHourlyStatsRepository sellerHourlyStatsRepository;
     private final EntityDtoMapper entityDtoMapper;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final TransactionCopyRepository transactionCopyRepository;
+    private final TransactionRowWriter transactionRowWriter;
+    private final Optional<WriteBehindTransactionWriter> writeBehindTransactionWriter;
+    private final Validator validator;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
     private final Clock clock;
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<TransactionDto> findAllTransactions() {
-        return transactionRepository.findAll().stream()
-                .map(entityDtoMapper::mapToTransactionDto)
-                .toList();
+        return transactionRepository.findAllDtos();
     }
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public KeysetPage<TransactionDto> findTransactionsAfter(int after, int limit) {
+        return KeysetPage.of(transactionRepository.findDtosAfter(after, PageRequest.ofSize(limit + 1)), limit, TransactionDto::getId);
+    }
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTransactions(Consumer<TransactionDto> consumer) {
+        try (Stream<TransactionDto> transactions = transactionRepository.streamAllDtos()) {
+            transactions.forEach(consumer);
+        }
+    }
+    @Override
+    public long exportTransactionsCsv(Integer sellerId, LocalDateTime dateFrom, LocalDateTime dateTo, OutputStream outputStream) {
+        return transactionCopyRepository.copyOutCsv(sellerId, dateFrom, dateTo, outputStream);
+    }
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<TransactionDto> findSellerTransactionsAfter(int sellerId, int after, int limit) {
+        if(!sellerRegistry.exists(sellerId)) {
+            throw new SellerNotFoundException(sellerId);
+        }
+        return KeysetPage.of(transactionRepository.findSellerDtosAfter(sellerId, after, PageRequest.ofSize(limit + 1)), limit, TransactionDto::getId);
+    }
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<TransactionDto> searchTransactions(TransactionSearchFilter filter, int after, int limit) {
+        return KeysetPage.of(transactionRepository.findDtos(searchSpecification(filter, after), limit + 1), limit, TransactionDto::getId);
+    }
+
+    private static Specification<TransactionEntity> searchSpecification(TransactionSearchFilter filter, int after) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(criteriaBuilder.greaterThan(root.get("id"), after));
+            if(filter.sellerId() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("seller").get("id"), filter.sellerId()));
+            }
+            if(filter.dateFrom() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("registrationDate"), filter.dateFrom()));
+            }
+            if(filter.dateTo() != null) {
+                predicates.add(criteriaBuilder.lessThan(root.get("registrationDate"), filter.dateTo()));
+            }
+            if(filter.paymentType() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("paymentType"), filter.paymentType()));
+            }
+            if(filter.amountFrom() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("amount"), filter.amountFrom()));
+            }
+            if(filter.amountTo() != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("amount"), filter.amountTo()));
+            }
+            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+    // no surrounding transaction: a write-behind append waits for the log fsync and must not hold a connection
+    @Override
     public TransactionDto createTransaction(int sellerId, BigDecimal amount, PaymentType paymentType) {
         var registrationDate = LocalDateTime.now(clock);
-        TransactionEntity entity = transactionRepository.save(TransactionEntity
-                .builder()
-                .seller(sellerRepository.findById(sellerId).orElseThrow(()->new SellerNotFoundException(sellerId)) )
-                .registrationDate(registrationDate)
-                .paymentType(paymentType)
-                .amount(amount)
-                .build());
+        if(!sellerRegistry.exists(sellerId)) {
+            throw new SellerNotFoundException(sellerId);
+        }
+        if(writeBehindTransactionWriter.isPresent()) {
+            return entityDtoMapper.mapToTransactionDto(writeBehindTransactionWriter.get()
+                    .append(sellerId, amount, paymentType, registrationDate));
+        }
+        return transactionTemplate.execute(status -> insertTransaction(sellerId, amount, paymentType, registrationDate));
+    }
+
+    private TransactionDto insertTransaction(int sellerId, BigDecimal amount, PaymentType paymentType, LocalDateTime registrationDate) {
+        TransactionEntity entity;
+        try {
+            entity = transactionRepository.save(TransactionEntity
+                    .builder()
+                    .seller(sellerRepository.getReferenceById(sellerId))
+                    .registrationDate(registrationDate)
+                    .paymentType(paymentType)
+                    .amount(amount)
+                    .build());
+        }
+        catch (DataIntegrityViolationException e) {
+            if(!isForeignKeyViolation(e)) {
+                throw e;
+            }
+            sellerRegistry.remove(sellerId);
+            throw new SellerNotFoundException(sellerId);
+        }
+        long dailyPaymentTypeCount = sellerDailyStatsRepository
+                .addTransaction(sellerId, registrationDate.toLocalDate(), paymentType.name(), amount);
+        sellerHourlyStatsRepository.addTransaction(sellerId, registrationDate.truncatedTo(ChronoUnit.HOURS), amount);
+        applicationEventPublisher.publishEvent(new TransactionCreatedEvent(
+                entity.getId(), sellerId, amount, paymentType, registrationDate, dailyPaymentTypeCount));
 
         return  entityDtoMapper.mapToTransactionDto(entity);
 
     }
+    private static boolean isForeignKeyViolation(DataIntegrityViolationException e) {
+        return e.getMostSpecificCause() instanceof SQLException sqlException
+                && FOREIGN_KEY_VIOLATION.equals(sqlException.getSQLState());
+    }
     @Override
     @Transactional
-    public Optional<TransactionDto> findTransactionById(int id) {
-        return transactionRepository.findById(id).map(entityDtoMapper::mapToTransactionDto);
-    }
+    public TransactionBatchResult createTransactions(List<NewTransactionPayload> payloads) {
+        var registrationDate = LocalDateTime.now(clock);
+        Integer[] ids = new Integer[payloads.size()];
+        List<TransactionBatchError> errors = new ArrayList<>();
+        Set<Integer> existingSellerIds = sellerRegistry.findExisting(payloads.stream()
+                .map(NewTransactionPayload::sellerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
 
+        List<Integer> accepted = new ArrayList<>();
+        List<PaymentType> paymentTypes = new ArrayList<>();
+        for(int i = 0; i < payloads.size(); i++) {
+            NewTransactionPayload payload = payloads.get(i);
+            String error = validate(payload, existingSellerIds);
+            if(error != null) {
+                errors.add(new TransactionBatchError(i, error));
+                continue;
+            }
+            accepted.add(i);
+            paymentTypes.add(PaymentType.valueOf(payload.paymentType().toUpperCase()));
+        }
+        if(accepted.isEmpty()) {
+            return new TransactionBatchResult(Arrays.asList(ids), errors);
+        }
+        Set<Integer> lockedSellerIds = sellerRepository.lockExistingIds(accepted.stream()
+                .map(i -> payloads.get(i).sellerId())
+                .collect(Collectors.toSet()));
+        for(int i = accepted.size() - 1; i >= 0; i--) {
+            int sellerId = payloads.get(accepted.get(i)).sellerId();
+            if(!lockedSellerIds.contains(sellerId)) {
+                sellerRegistry.remove(sellerId);
+                errors.add(new TransactionBatchError(accepted.get(i), String.format("Seller with id '%d' not found", sellerId)));
+                accepted.remove(i);
+                paymentTypes.remove(i);
+            }
+        }
+        errors.sort(Comparator.comparingInt(TransactionBatchError::index));
+        if(accepted.isEmpty()) {
+            return new TransactionBatchResult(Arrays.asList(ids), errors);
+        }
 
+        List<Integer> allocatedIds = transactionBatchRepository.allocateIds(accepted.size());
+        List<TransactionBatchRepository.Row> rows = new ArrayList<>(accepted.size());
+        for(int i = 0; i < accepted.size(); i++) {
+            NewTransactionPayload payload = payloads.get(accepted.get(i));
+            rows.add(new TransactionBatchRepository.Row(
+                    allocatedIds.get(i), payload.sellerId(), payload.amount(), paymentTypes.get(i), registrationDate));
+            ids[accepted.get(i)] = allocatedIds.get(i);
+        }
+        transactionRowWriter.write(rows);
+        return new TransactionBatchResult(Arrays.asList(ids), errors);
+    }
 
+    private String validate(NewTransactionPayload payload, Set<Integer> existingSellerIds) {
+        if(payload == null) {
+            return "Transaction is empty";
+        }
+        var violations = validator.validate(payload);
+        if(!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        try {
+            PaymentType.valueOf(payload.paymentType().toUpperCase());
+        }
+        catch (IllegalArgumentException e) {
+            return "Invalid payment type";
+        }
+        if(!existingSellerIds.contains(payload.sellerId())) {
+            return String.format("Seller with id '%d' not found", payload.sellerId());
+        }
+        return null;
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TransactionDto> findTransactionById(int id) {
+        return transactionRepository.findDtoById(id);
+    }
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findTransactionVersion(int id) {
+        return transactionRepository.findVersionById(id);
+    }
+    @Override
+    @Transactional(readOnly = true)
+    public List<PaymentTypeStats> findPaymentTypeStats(LocalDate dateFrom, LocalDate dateTo, Integer sellerId) {
+        if(sellerId != null && !sellerRepository.existsById(sellerId)) {
+            throw new SellerNotFoundException(sellerId);
+        }
+        return sellerDailyStatsRepository.findPaymentTypeTotals(dateFrom, dateTo, sellerId).stream()
+                .map(totals -> new PaymentTypeStats(
+                        totals.paymentType(),
+                        totals.count(),
+                        totals.amount(),
+                        totals.amount().divide(BigDecimal.valueOf(totals.count()), 2, RoundingMode.HALF_UP)))
+                .toList();
+    }
 }
@@ -0,0 +1,50 @@
+package org.shiftlab.services.ingest;
+
+import lombok.RequiredArgsConstructor;
+import org.shiftlab.config.TransactionBatchProperties;
+import org.shiftlab.dto.TransactionIngestSummary;
+import org.shiftlab.services.event.TransactionsImportedEvent;
+import org.shiftlab.store.repos.TransactionCopyRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Loads a CSV of historical transactions in one database transaction: the body is streamed into a staging
+ * table with {@code COPY FROM STDIN}, checked with set-based updates and moved into {@code transaction}
+ * with one statement. Rejected rows are reported by line number like in {@link TransactionStreamIngester};
+ * a file that is not valid CSV is rejected as a whole.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionCsvImporter {
+    private final TransactionCopyRepository transactionCopyRepository;
+    private final TransactionBatchProperties properties;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Transactional
+    public TransactionIngestSummary importCsv(InputStream body) {
+        transactionCopyRepository.createImportTable();
+        try {
+            transactionCopyRepository.copyInCsv(body);
+        }
+        catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed CSV: " + e.getMostSpecificCause().getMessage());
+        }
+        transactionCopyRepository.rejectInvalidImportRows();
+        long accepted = transactionCopyRepository.moveValidImportRows();
+        long rejected = transactionCopyRepository.countRejectedImportRows();
+        if(accepted > 0) {
+            applicationEventPublisher.publishEvent(new TransactionsImportedEvent(accepted));
+        }
+        return new TransactionIngestSummary(accepted, rejected, rejected == 0
+                ? List.of()
+                : transactionCopyRepository.findRejectedImportRows(properties.maxReportedErrors()));
+    }
+}
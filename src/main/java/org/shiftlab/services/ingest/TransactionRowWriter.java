@@ -0,0 +1,111 @@
+package org.shiftlab.services.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.shiftlab.config.TransactionBatchProperties;
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.services.event.TransactionCreatedEvent;
+import org.shiftlab.store.projection.DailyPaymentTypeCount;
+import org.shiftlab.store.repos.SellerRepository;
+import org.shiftlab.store.repos.TransactionBatchRepository;
+import org.shiftlab.store.repos.TransactionBatchRepository.Row;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Stores rows with already allocated ids, updates both rollups and publishes one
+ * {@link TransactionCreatedEvent} per row.
+ */
+@Slf4j
+@Component
+public class TransactionRowWriter {
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final SellerRepository sellerRepository;
+    private final TransactionBatchProperties transactionBatchProperties;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final Counter droppedRows;
+
+    public TransactionRowWriter(TransactionBatchRepository transactionBatchRepository,
+                                SellerRepository sellerRepository,
+                                TransactionBatchProperties transactionBatchProperties,
+                                ApplicationEventPublisher applicationEventPublisher,
+                                MeterRegistry meterRegistry) {
+        this.transactionBatchRepository = transactionBatchRepository;
+        this.sellerRepository = sellerRepository;
+        this.transactionBatchProperties = transactionBatchProperties;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.droppedRows = Counter.builder("transactions.write.behind.dropped")
+                .description("Acknowledged transactions dropped because their seller was deleted")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public void write(List<Row> rows) {
+        transactionBatchRepository.insertAll(rows, transactionBatchProperties.jdbcBatchSize());
+        transactionBatchRepository.addToHourlyStats(rows);
+        publishCreatedEvents(rows, transactionBatchRepository.addToDailyStats(rows));
+    }
+
+    /**
+     * Same as {@link #write} but skips rows that are already stored and rows of sellers deleted in the
+     * meantime, so a partially applied batch can be written again. Dropped rows are logged, counted in
+     * {@code transactions.write.behind.dropped} and returned so the caller can keep them.
+     */
+    @Transactional
+    public List<Row> writeMissing(List<Row> rows) {
+        Set<Integer> storedIds = transactionBatchRepository.findStoredIds(rows.stream()
+                .map(Row::id)
+                .toList());
+        Set<Integer> existingSellerIds = sellerRepository.findExistingIds(rows.stream()
+                .map(Row::sellerId)
+                .collect(Collectors.toSet()));
+        List<Row> missing = new ArrayList<>();
+        List<Row> dropped = new ArrayList<>();
+        for(var row : rows) {
+            if(!storedIds.contains(row.id())) {
+                (existingSellerIds.contains(row.sellerId()) ? missing : dropped).add(row);
+            }
+        }
+        if(!dropped.isEmpty()) {
+            droppedRows.increment(dropped.size());
+            log.warn("Dropped {} acknowledged transactions of deleted sellers: {}", dropped.size(), dropped);
+        }
+        if(!missing.isEmpty()) {
+            write(missing);
+        }
+        return dropped;
+    }
+
+    private void publishCreatedEvents(List<Row> rows, List<DailyPaymentTypeCount> dailyCounts) {
+        Map<DailyKey, Long> remaining = new HashMap<>();
+        for(var row : rows) {
+            remaining.merge(DailyKey.of(row), 1L, Long::sum);
+        }
+        Map<DailyKey, Long> finalCounts = new HashMap<>();
+        for(var dailyCount : dailyCounts) {
+            finalCounts.put(new DailyKey(dailyCount.sellerId(), dailyCount.day(), dailyCount.paymentType()), dailyCount.count());
+        }
+        for(var row : rows) {
+            var key = DailyKey.of(row);
+            long dailyPaymentTypeCount = finalCounts.get(key) - remaining.merge(key, -1L, Long::sum);
+            applicationEventPublisher.publishEvent(new TransactionCreatedEvent(
+                    row.id(), row.sellerId(), row.amount(), row.paymentType(), row.transactionDate(), dailyPaymentTypeCount));
+        }
+    }
+
+    private record DailyKey(int sellerId, LocalDate day, PaymentType paymentType) {
+        private static DailyKey of(Row row) {
+            return new DailyKey(row.sellerId(), row.transactionDate().toLocalDate(), row.paymentType());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.shiftlab.services.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.shiftlab.config.TransactionBatchProperties;
+import org.shiftlab.controllers.payload.NewTransactionPayload;
+import org.shiftlab.dto.TransactionBatchError;
+import org.shiftlab.dto.TransactionIngestSummary;
+import org.shiftlab.services.TransactionService;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Reads newline-delimited transactions and commits them in chunks of {@code streamChunkSize}, one
+ * database transaction per chunk. The request body is not read while a chunk is being written, so a slow
+ * database stalls the upload through TCP flow control instead of growing the heap. Errors are reported by
+ * 1-based line number in line order; when there are more than {@code maxReportedErrors}, the lowest lines are kept.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionStreamIngester {
+    private static final int MAX_LINE_LENGTH = 16 * 1024;
+    private static final Comparator<TransactionBatchError> BY_LINE = Comparator.comparingInt(TransactionBatchError::index);
+
+    private final TransactionService transactionService;
+    private final TransactionBatchProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public TransactionIngestSummary ingest(InputStream body) {
+        var summary = new Summary();
+        List<NewTransactionPayload> chunk = new ArrayList<>(properties.streamChunkSize());
+        List<Long> chunkLines = new ArrayList<>(properties.streamChunkSize());
+        try (var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            StringBuilder line = new StringBuilder();
+            for(var status = readLine(reader, line); status != LineStatus.EOF; status = readLine(reader, line)) {
+                lineNumber++;
+                if(status == LineStatus.TOO_LONG) {
+                    summary.reject(lineNumber, "Line is longer than " + MAX_LINE_LENGTH + " characters");
+                    continue;
+                }
+                if(line.toString().isBlank()) {
+                    continue;
+                }
+                try {
+                    chunk.add(objectMapper.readValue(line.toString(), NewTransactionPayload.class));
+                    chunkLines.add(lineNumber);
+                }
+                catch (JsonProcessingException e) {
+                    summary.reject(lineNumber, "Malformed JSON");
+                }
+                if(chunk.size() == properties.streamChunkSize()) {
+                    flush(chunk, chunkLines, summary);
+                }
+            }
+            flush(chunk, chunkLines, summary);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new TransactionIngestSummary(summary.accepted, summary.rejected, summary.sortedErrors());
+    }
+
+    private void flush(List<NewTransactionPayload> chunk, List<Long> chunkLines, Summary summary) {
+        if(chunk.isEmpty()) {
+            return;
+        }
+        var result = transactionService.createTransactions(chunk);
+        summary.accepted += chunk.size() - result.errors().size();
+        for(var error : result.errors()) {
+            summary.reject(chunkLines.get(error.index()), error.message());
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private static LineStatus readLine(BufferedReader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        boolean tooLong = false;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if(line.length() < MAX_LINE_LENGTH) {
+                line.append((char) c);
+            } else {
+                tooLong = true;
+            }
+        }
+        if(c == -1 && line.isEmpty() && !tooLong) {
+            return LineStatus.EOF;
+        }
+        return tooLong ? LineStatus.TOO_LONG : LineStatus.READ;
+    }
+
+    private enum LineStatus {
+        READ,
+        TOO_LONG,
+        EOF
+    }
+
+    private final class Summary {
+        private long accepted;
+        private long rejected;
+        private final PriorityQueue<TransactionBatchError> errors = new PriorityQueue<>(BY_LINE.reversed());
+
+        private void reject(long lineNumber, String message) {
+            rejected++;
+            errors.add(new TransactionBatchError((int) lineNumber, message));
+            if(errors.size() > properties.maxReportedErrors()) {
+                errors.poll();
+            }
+        }
+
+        private List<TransactionBatchError> sortedErrors() {
+            return errors.stream().sorted(BY_LINE).toList();
+        }
+    }
+}
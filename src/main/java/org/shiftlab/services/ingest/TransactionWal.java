@@ -0,0 +1,201 @@
+package org.shiftlab.services.ingest;
+
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.store.repos.TransactionBatchRepository.Row;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of transactions that are acknowledged but not yet stored. Records go to numbered segment
+ * files, one line per row prefixed with a CRC32 of the line, so a record torn by a crash is detected and
+ * ignored on replay. Writes become durable only after {@link #sync()}. Rows that can never be stored are moved
+ * to a separate dead-letter file in the same format before their segment is deleted. Not thread-safe.
+ */
+public class TransactionWal implements Closeable {
+    private static final String PREFIX = "transactions-";
+    private static final String SUFFIX = ".wal";
+    private static final Pattern SEGMENT_NAME = Pattern.compile(PREFIX + "\\d+\\" + SUFFIX);
+    private static final String DEAD_LETTERS = "dead-letters" + SUFFIX;
+
+    private final Path directory;
+    private long segment;
+    private FileChannel channel;
+
+    public TransactionWal(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segment = segments().stream().mapToLong(TransactionWal::segmentIndex).max().orElse(0) + 1;
+        this.channel = open(segment);
+    }
+
+    /**
+     * Rows of all segments sealed before this log was opened or rotated, in append order.
+     */
+    public List<Row> readSealed() throws IOException {
+        List<Row> rows = new ArrayList<>();
+        for(Path path : segments()) {
+            if(segmentIndex(path) >= segment) {
+                continue;
+            }
+            rows.addAll(read(path));
+        }
+        return rows;
+    }
+
+    public void append(List<Row> rows) throws IOException {
+        write(channel, rows);
+    }
+
+    public void sync() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Seals the current segment and starts a new one. Returns the index of the new segment; every segment
+     * below it can be deleted with {@link #deleteSealedBefore} once its rows are stored.
+     */
+    public long rotate() throws IOException {
+        channel.force(false);
+        channel.close();
+        channel = open(++segment);
+        return segment;
+    }
+
+    /**
+     * Appends rows to the dead-letter file and syncs it, so they survive the deletion of their segment.
+     */
+    public void deadLetter(List<Row> rows) throws IOException {
+        Path path = directory.resolve(DEAD_LETTERS);
+        boolean created = Files.notExists(path);
+        try (FileChannel deadLetters = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            write(deadLetters, rows);
+            deadLetters.force(false);
+        }
+        if(created) {
+            syncDirectory();
+        }
+    }
+
+    public List<Row> readDeadLetters() throws IOException {
+        Path path = directory.resolve(DEAD_LETTERS);
+        return Files.exists(path) ? read(path) : List.of();
+    }
+
+    public void deleteSealedBefore(long segment) throws IOException {
+        for(Path path : segments()) {
+            if(segmentIndex(path) < segment) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    static String encode(Row row) {
+        String payload = String.join(";",
+                String.valueOf(row.id()),
+                String.valueOf(row.sellerId()),
+                row.amount().toPlainString(),
+                row.paymentType().name(),
+                row.transactionDate().toString());
+        return Long.toHexString(checksum(payload)) + ";" + payload;
+    }
+
+    static Row decode(String line) {
+        int separator = line.indexOf(';');
+        if(separator < 0) {
+            return null;
+        }
+        String payload = line.substring(separator + 1);
+        try {
+            if(Long.parseLong(line.substring(0, separator), 16) != checksum(payload)) {
+                return null;
+            }
+            String[] fields = payload.split(";");
+            return new Row(Integer.valueOf(fields[0]), Integer.parseInt(fields[1]), new BigDecimal(fields[2]),
+                    PaymentType.valueOf(fields[3]), LocalDateTime.parse(fields[4]));
+        }
+        catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static long checksum(String payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private FileChannel open(long segment) throws IOException {
+        FileChannel opened = FileChannel.open(directory.resolve(PREFIX + segment + SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        syncDirectory();
+        return opened;
+    }
+
+    // a new file is only durable once its directory entry is, otherwise a synced segment can vanish in a crash
+    private void syncDirectory() throws IOException {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+    }
+
+    private static void write(FileChannel target, List<Row> rows) throws IOException {
+        StringBuilder records = new StringBuilder();
+        for(Row row : rows) {
+            records.append(encode(row)).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    private static List<Row> read(Path path) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Row row = decode(line);
+                if(row == null) {
+                    break;
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingLong(TransactionWal::segmentIndex))
+                    .toList();
+        }
+    }
+
+    private static long segmentIndex(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
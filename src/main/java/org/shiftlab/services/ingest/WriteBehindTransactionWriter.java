@@ -0,0 +1,270 @@
+package org.shiftlab.services.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.shiftlab.config.WriteBehindProperties;
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.store.repos.TransactionBatchRepository;
+import org.shiftlab.store.repos.TransactionBatchRepository.Row;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind mode of {@code POST /transaction}. A transaction is acknowledged once it is in the local
+ * {@link TransactionWal}: one thread drains all waiting appends and syncs them with a single fsync. Acknowledged
+ * rows are stored by a background flusher in group commits of {@code flushBatchSize} rows, every
+ * {@code flushInterval} or as soon as a full group is pending. Segments are deleted only after their rows are
+ * committed, and whatever is left in the log is written again on startup; rows already stored are skipped,
+ * so replay never duplicates a transaction. A group rejected by a constraint is retried row by row. Rows the
+ * database still rejects and rows of deleted sellers are synced to the dead-letter file of the log before their
+ * segment is deleted, instead of blocking the flusher.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindTransactionWriter {
+    private final TransactionRowWriter transactionRowWriter;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final WriteBehindProperties properties;
+    private final TransactionWal wal;
+    private final Timer flushTimer;
+    private final Counter deadLetters;
+
+    private final BlockingQueue<Append> appends = new LinkedBlockingQueue<>();
+    private final Deque<Integer> ids = new ArrayDeque<>();
+    private final List<Row> pending = new ArrayList<>();
+    private final Object walLock = new Object();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            runnable -> new Thread(runnable, "transaction-wal-flusher"));
+    private final Thread syncThread = new Thread(this::syncLoop, "transaction-wal-sync");
+    private volatile boolean running = true;
+
+    public WriteBehindTransactionWriter(TransactionRowWriter transactionRowWriter,
+                                        TransactionBatchRepository transactionBatchRepository,
+                                        WriteBehindProperties properties,
+                                        MeterRegistry meterRegistry) throws IOException {
+        this.transactionRowWriter = transactionRowWriter;
+        this.transactionBatchRepository = transactionBatchRepository;
+        this.properties = properties;
+        this.wal = new TransactionWal(properties.directory());
+        this.flushTimer = Timer.builder("transactions.write.behind.flush")
+                .description("Time to store one flushed group of write-behind transactions")
+                .register(meterRegistry);
+        this.deadLetters = Counter.builder("transactions.write.behind.dead.letter")
+                .description("Acknowledged transactions rejected by the database and not stored")
+                .register(meterRegistry);
+        Gauge.builder("transactions.write.behind.pending", this, WriteBehindTransactionWriter::pendingCount)
+                .description("Acknowledged transactions not yet stored in the database")
+                .register(meterRegistry);
+        Gauge.builder("transactions.write.behind.sync.queue", appends, BlockingQueue::size)
+                .description("Transactions waiting for the write-ahead log fsync")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        List<Row> unflushed = wal.readSealed();
+        for(List<Row> group : groups(unflushed)) {
+            store(group);
+        }
+        wal.deleteSealedBefore(wal.rotate());
+        if(!unflushed.isEmpty()) {
+            log.info("Replayed {} transactions from the write-ahead log", unflushed.size());
+        }
+        syncThread.setDaemon(true);
+        syncThread.start();
+        long interval = properties.flushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Appends a transaction to the write-ahead log and returns once it is synced to disk.
+     */
+    public Row append(int sellerId, BigDecimal amount, PaymentType paymentType, LocalDateTime transactionDate) {
+        if(!running) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Write-behind log is closed");
+        }
+        if(pendingCount() >= properties.maxPending()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many transactions waiting to be stored");
+        }
+        Append append = new Append(new Row(nextId(), sellerId, amount, paymentType, transactionDate), new CompletableFuture<>());
+        appends.add(append);
+        try {
+            append.synced().get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the write-ahead log", e);
+        }
+        catch (ExecutionException e) {
+            throw new UncheckedIOException("Write-ahead log append failed", (IOException) e.getCause());
+        }
+        return append.row();
+    }
+
+    public int pendingCount() {
+        synchronized (walLock) {
+            return pending.size();
+        }
+    }
+
+    public void flush() {
+        flushRequested.set(false);
+        List<Row> rows;
+        long firstOpenSegment;
+        synchronized (walLock) {
+            if(pending.isEmpty()) {
+                return;
+            }
+            rows = new ArrayList<>(pending);
+            pending.clear();
+            try {
+                firstOpenSegment = wal.rotate();
+            }
+            catch (IOException e) {
+                pending.addAll(0, rows);
+                log.error("Could not rotate the write-ahead log", e);
+                return;
+            }
+        }
+        try {
+            flushTimer.record(() -> groups(rows).forEach(this::store));
+            wal.deleteSealedBefore(firstOpenSegment);
+        }
+        catch (IOException | RuntimeException e) {
+            synchronized (walLock) {
+                pending.addAll(0, rows);
+            }
+            log.error("Could not flush {} write-behind transactions, will retry", rows.size(), e);
+        }
+    }
+
+    private void store(List<Row> rows) {
+        try {
+            List<Row> dropped = transactionRowWriter.writeMissing(rows);
+            if(!dropped.isEmpty()) {
+                deadLetter(dropped);
+            }
+        }
+        catch (DataIntegrityViolationException e) {
+            if(rows.size() == 1) {
+                deadLetter(rows);
+                deadLetters.increment();
+                log.error("Dead-lettered write-behind transaction {}", rows.get(0), e);
+                return;
+            }
+            log.warn("Could not store {} write-behind transactions, retrying row by row", rows.size(), e);
+            rows.forEach(row -> store(List.of(row)));
+        }
+    }
+
+    private void deadLetter(List<Row> rows) {
+        synchronized (walLock) {
+            try {
+                wal.deadLetter(rows);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Could not write dead letters to the write-ahead log", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        running = false;
+        syncThread.join();
+        appends.forEach(append -> append.synced().completeExceptionally(new IOException("Write-behind log is closed")));
+        flusher.shutdown();
+        flusher.awaitTermination(1, TimeUnit.MINUTES);
+        flush();
+        wal.close();
+    }
+
+    private void syncLoop() {
+        List<Append> batch = new ArrayList<>();
+        while (running || !appends.isEmpty()) {
+            try {
+                Append first = appends.poll(100, TimeUnit.MILLISECONDS);
+                if(first == null) {
+                    continue;
+                }
+                batch.add(first);
+                appends.drainTo(batch);
+                List<Row> rows = batch.stream().map(Append::row).toList();
+                int pendingAfterSync;
+                synchronized (walLock) {
+                    wal.append(rows);
+                    wal.sync();
+                    pending.addAll(rows);
+                    pendingAfterSync = pending.size();
+                }
+                batch.forEach(append -> append.synced().complete(null));
+                if(pendingAfterSync >= properties.flushBatchSize() && flushRequested.compareAndSet(false, true)) {
+                    flusher.execute(this::flush);
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            catch (IOException | RuntimeException e) {
+                batch.forEach(append -> append.synced().completeExceptionally(
+                        e instanceof IOException ? e : new IOException(e)));
+                startNewSegment();
+            }
+            finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // a torn record hides everything after it in the segment on replay
+    private void startNewSegment() {
+        synchronized (walLock) {
+            try {
+                wal.rotate();
+            }
+            catch (IOException e) {
+                log.error("Could not rotate the write-ahead log", e);
+            }
+        }
+    }
+
+    private synchronized int nextId() {
+        if(ids.isEmpty()) {
+            ids.addAll(transactionBatchRepository.allocateIds(properties.flushBatchSize()));
+        }
+        return ids.poll();
+    }
+
+    private List<List<Row>> groups(List<Row> rows) {
+        List<List<Row>> groups = new ArrayList<>();
+        for(int from = 0; from < rows.size(); from += properties.flushBatchSize()) {
+            groups.add(rows.subList(from, Math.min(rows.size(), from + properties.flushBatchSize())));
+        }
+        return groups;
+    }
+
+    private record Append(Row row, CompletableFuture<Void> synced) {
+    }
+}
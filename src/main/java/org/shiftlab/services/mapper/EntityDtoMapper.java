@@ -4,6 +4,7 @@ import org.shiftlab.dto.SellerDto;
 import org.shiftlab.dto.TransactionDto;
 import org.shiftlab.store.entity.SellerEntity;
 import org.shiftlab.store.entity.TransactionEntity;
+import org.shiftlab.store.repos.TransactionBatchRepository;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -18,6 +19,15 @@ public class EntityDtoMapper {
                 .build();
 
     }
+    public TransactionDto mapToTransactionDto(TransactionBatchRepository.Row row) {
+        return TransactionDto.builder()
+                .id(row.id())
+                .transactionDate(row.transactionDate())
+                .amount(row.amount())
+                .paymentType(row.paymentType())
+                .sellerId(row.sellerId())
+                .build();
+    }
     public SellerDto mapToSellerDto(SellerEntity entity) {
         return SellerDto.builder()
                 .id(entity.getId())
@@ -0,0 +1,106 @@
+package org.shiftlab.services.registry;
+
+import lombok.RequiredArgsConstructor;
+import org.shiftlab.store.repos.SellerRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory set of seller ids, one bit per id, loaded on first use. A hit is trusted without a query; a
+ * miss falls back to the database, so sellers created elsewhere are picked up. A seller deleted elsewhere is
+ * still reported as existing, and the foreign key on insert stays the final check.
+ */
+@Component
+@RequiredArgsConstructor
+public class SellerRegistry {
+    private final SellerRepository sellerRepository;
+
+    private final BitSet ids = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+
+    public boolean exists(int id) {
+        ensureLoaded();
+        if(contains(id)) {
+            return true;
+        }
+        if(sellerRepository.existsById(id)) {
+            add(id);
+            return true;
+        }
+        return false;
+    }
+
+    public Set<Integer> findExisting(Collection<Integer> sellerIds) {
+        ensureLoaded();
+        Set<Integer> existing = new HashSet<>();
+        Set<Integer> unknown = new HashSet<>();
+        for(Integer id : sellerIds) {
+            (contains(id) ? existing : unknown).add(id);
+        }
+        if(!unknown.isEmpty()) {
+            for(Integer id : sellerRepository.findExistingIds(unknown)) {
+                add(id);
+                existing.add(id);
+            }
+        }
+        return existing;
+    }
+
+    public void add(int id) {
+        if(id < 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ids.set(id);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        if(id < 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ids.clear(id);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean contains(int id) {
+        if(id < 0) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return ids.get(id);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if(loaded) {
+            return;
+        }
+        synchronized (this) {
+            if(!loaded) {
+                sellerRepository.findAllIds().forEach(this::add);
+                loaded = true;
+            }
+        }
+    }
+}
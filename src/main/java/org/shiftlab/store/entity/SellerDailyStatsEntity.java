@@ -0,0 +1,38 @@
+package org.shiftlab.store.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.shiftlab.dto.PaymentType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(SellerDailyStatsId.class)
+@Table(schema = "sales_management", name="seller_daily_stats")
+public class SellerDailyStatsEntity {
+    @Id
+    @Column(name = "seller_id")
+    private Integer sellerId;
+
+    @Id
+    @Column(name = "transaction_day")
+    private LocalDate transactionDay;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_type")
+    private PaymentType paymentType;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Column(name = "amount_sum", nullable = false)
+    private BigDecimal amountSum;
+}
@@ -0,0 +1,18 @@
+package org.shiftlab.store.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.shiftlab.dto.PaymentType;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerDailyStatsId implements Serializable {
+    private Integer sellerId;
+    private LocalDate transactionDay;
+    private PaymentType paymentType;
+}
@@ -2,6 +2,8 @@ package org.shiftlab.store.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,7 +16,11 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Table(schema = "sales_management", name="seller")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SellerEntity.CACHE_REGION)
 public class SellerEntity {
+    public static final String CACHE_REGION = "sellers";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
@@ -28,6 +34,10 @@ public class SellerEntity {
     @Column(name = "registration_date", nullable = false)
     private LocalDateTime registrationDate;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "seller", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<TransactionEntity> transactions;
 }
@@ -0,0 +1,32 @@
+package org.shiftlab.store.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(SellerHourlyStatsId.class)
+@Table(schema = "sales_management", name="seller_hourly_stats")
+public class SellerHourlyStatsEntity {
+    @Id
+    @Column(name = "seller_id")
+    private Integer sellerId;
+
+    @Id
+    @Column(name = "transaction_hour")
+    private LocalDateTime transactionHour;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Column(name = "amount_sum", nullable = false)
+    private BigDecimal amountSum;
+}
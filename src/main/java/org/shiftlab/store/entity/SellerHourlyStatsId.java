@@ -0,0 +1,16 @@
+package org.shiftlab.store.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerHourlyStatsId implements Serializable {
+    private Integer sellerId;
+    private LocalDateTime transactionHour;
+}
@@ -32,6 +32,10 @@ public class TransactionEntity {
     @Column(name = "transaction_date", nullable = false)
     private LocalDateTime registrationDate;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seller_id", nullable = false)
     private SellerEntity seller;
@@ -0,0 +1,8 @@
+package org.shiftlab.store.projection;
+
+import org.shiftlab.dto.PaymentType;
+
+import java.time.LocalDate;
+
+public record DailyPaymentTypeCount(Integer sellerId, LocalDate day, PaymentType paymentType, Long count) {
+}
@@ -0,0 +1,7 @@
+package org.shiftlab.store.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyTotals(LocalDate day, Long count, BigDecimal amount) {
+}
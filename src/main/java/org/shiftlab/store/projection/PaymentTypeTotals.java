@@ -0,0 +1,8 @@
+package org.shiftlab.store.projection;
+
+import org.shiftlab.dto.PaymentType;
+
+import java.math.BigDecimal;
+
+public record PaymentTypeTotals(PaymentType paymentType, Long count, BigDecimal amount) {
+}
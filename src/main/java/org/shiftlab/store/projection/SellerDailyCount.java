@@ -0,0 +1,6 @@
+package org.shiftlab.store.projection;
+
+import java.time.LocalDate;
+
+public record SellerDailyCount(Integer sellerId, LocalDate day, Long count) {
+}
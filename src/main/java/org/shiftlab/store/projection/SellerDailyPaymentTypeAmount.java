@@ -0,0 +1,9 @@
+package org.shiftlab.store.projection;
+
+import org.shiftlab.dto.PaymentType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record SellerDailyPaymentTypeAmount(Integer sellerId, LocalDate day, PaymentType paymentType, Long count, BigDecimal amount) {
+}
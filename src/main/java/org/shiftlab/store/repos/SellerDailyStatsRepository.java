@@ -0,0 +1,98 @@
+package org.shiftlab.store.repos;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.shiftlab.store.entity.SellerDailyStatsEntity;
+import org.shiftlab.store.entity.SellerDailyStatsId;
+import org.shiftlab.store.projection.DailyTotals;
+import org.shiftlab.store.projection.PaymentTypeTotals;
+import org.shiftlab.store.projection.SellerDailyCount;
+import org.shiftlab.store.projection.SellerDailyPaymentTypeAmount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface SellerDailyStatsRepository extends JpaRepository<SellerDailyStatsEntity, SellerDailyStatsId> {
+
+    @Query(value = """
+            insert into sales_management.seller_daily_stats
+                (seller_id, transaction_day, payment_type, transaction_count, amount_sum)
+            values (:sellerId, :transactionDay, :paymentType, 1, :amount)
+            on conflict (seller_id, transaction_day, payment_type) do update
+            set transaction_count = seller_daily_stats.transaction_count + excluded.transaction_count,
+                amount_sum = seller_daily_stats.amount_sum + excluded.amount_sum
+            returning transaction_count
+            """, nativeQuery = true)
+    long addTransaction(@Param("sellerId") int sellerId,
+                        @Param("transactionDay") LocalDate transactionDay,
+                        @Param("paymentType") String paymentType,
+                        @Param("amount") BigDecimal amount);
+
+    List<SellerDailyStatsEntity> findAllBySellerIdOrderByTransactionDay(int sellerId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new org.shiftlab.store.projection.SellerDailyPaymentTypeAmount(
+                s.sellerId, s.transactionDay, s.paymentType, s.transactionCount, s.amountSum)
+            from SellerDailyStatsEntity s
+            where s.transactionDay >= :dayFrom
+            """)
+    Stream<SellerDailyPaymentTypeAmount> streamDailyAmountsFrom(@Param("dayFrom") LocalDate dayFrom);
+
+    @Query("""
+            select count(distinct s.sellerId)
+            from SellerDailyStatsEntity s
+            where s.transactionDay >= :dayFrom
+            """)
+    long countActiveSellersFrom(@Param("dayFrom") LocalDate dayFrom);
+
+    @Query("""
+            select new org.shiftlab.store.projection.DailyTotals(s.transactionDay, sum(s.transactionCount), sum(s.amountSum))
+            from SellerDailyStatsEntity s
+            where s.sellerId = :sellerId and s.transactionDay between :dayFrom and :dayTo
+            group by s.transactionDay
+            order by s.transactionDay
+            """)
+    List<DailyTotals> findDailyTotals(@Param("sellerId") int sellerId,
+                                      @Param("dayFrom") LocalDate dayFrom,
+                                      @Param("dayTo") LocalDate dayTo);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new org.shiftlab.store.projection.SellerDailyCount(sel.id, s.transactionDay, sum(s.transactionCount))
+            from SellerEntity sel left join SellerDailyStatsEntity s on s.sellerId = sel.id
+            group by sel.id, s.transactionDay
+            order by sel.id, s.transactionDay
+            """)
+    Stream<SellerDailyCount> streamDailyCounts();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new org.shiftlab.store.projection.SellerDailyCount(sel.id, s.transactionDay, sum(s.transactionCount))
+            from SellerEntity sel left join SellerDailyStatsEntity s on s.sellerId = sel.id
+            where sel.id in :sellerIds
+            group by sel.id, s.transactionDay
+            order by sel.id, s.transactionDay
+            """)
+    Stream<SellerDailyCount> streamDailyCounts(@Param("sellerIds") Collection<Integer> sellerIds);
+
+    @Query("""
+            select new org.shiftlab.store.projection.PaymentTypeTotals(s.paymentType, sum(s.transactionCount), sum(s.amountSum))
+            from SellerDailyStatsEntity s
+            where s.transactionDay between :dayFrom and :dayTo and (:sellerId is null or s.sellerId = :sellerId)
+            group by s.paymentType
+            order by s.paymentType
+            """)
+    List<PaymentTypeTotals> findPaymentTypeTotals(@Param("dayFrom") LocalDate dayFrom,
+                                                  @Param("dayTo") LocalDate dayTo,
+                                                  @Param("sellerId") Integer sellerId);
+}
@@ -0,0 +1,38 @@
+package org.shiftlab.store.repos;
+
+import org.shiftlab.store.entity.SellerHourlyStatsEntity;
+import org.shiftlab.store.entity.SellerHourlyStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SellerHourlyStatsRepository extends JpaRepository<SellerHourlyStatsEntity, SellerHourlyStatsId> {
+
+    @Query(value = """
+            insert into sales_management.seller_hourly_stats
+                (seller_id, transaction_hour, transaction_count, amount_sum)
+            values (:sellerId, :transactionHour, 1, :amount)
+            on conflict (seller_id, transaction_hour) do update
+            set transaction_count = seller_hourly_stats.transaction_count + excluded.transaction_count,
+                amount_sum = seller_hourly_stats.amount_sum + excluded.amount_sum
+            returning transaction_count
+            """, nativeQuery = true)
+    long addTransaction(@Param("sellerId") int sellerId,
+                        @Param("transactionHour") LocalDateTime transactionHour,
+                        @Param("amount") BigDecimal amount);
+
+    @Query("""
+            select s from SellerHourlyStatsEntity s
+            where s.sellerId = :sellerId and s.transactionHour >= :hourFrom and s.transactionHour < :hourTo
+            order by s.transactionHour
+            """)
+    List<SellerHourlyStatsEntity> findHours(@Param("sellerId") int sellerId,
+                                            @Param("hourFrom") LocalDateTime hourFrom,
+                                            @Param("hourTo") LocalDateTime hourTo);
+}
@@ -1,17 +1,74 @@
 package org.shiftlab.store.repos;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.shiftlab.dto.SellerDto;
 import org.shiftlab.store.entity.SellerEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface SellerRepository extends JpaRepository<SellerEntity, Integer> {
+    String SELECT_DTO = """
+            select new org.shiftlab.dto.SellerDto(s.id, s.name, s.contactInfo, s.registrationDate)
+            from SellerEntity s
+            """;
 
+    @Query(SELECT_DTO + "order by s.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<SellerDto> findAllDtos();
 
-    @Query("select s from SellerEntity s left join fetch s.transactions")
-    List<SellerEntity> findAllSellersJoinTransactions();
+    @Query(SELECT_DTO + "where s.id > :after order by s.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<SellerDto> findDtosAfter(@Param("after") int after, Pageable page);
 
+
+    @Query(value = """
+            select s.* from sales_management.seller s
+            left join sales_management.seller_daily_stats d
+                on d.seller_id = s.id
+                and d.transaction_day between :dayFrom and :dayTo
+            group by s.id
+            having coalesce(sum(d.amount_sum), 0) < :summa
+            order by s.id
+            """, nativeQuery = true)
+    List<SellerEntity> findAllSellersWithTransactionsSumLessThan(@Param("summa") BigDecimal summa,
+                                                                @Param("dayFrom") LocalDate dayFrom,
+                                                                @Param("dayTo") LocalDate dayTo);
+
+    @Query(value = """
+            select s.* from sales_management.seller s
+            join sales_management.seller_daily_stats d on d.seller_id = s.id
+            where d.transaction_day between :dayFrom and :dayTo
+            group by s.id
+            order by sum(d.amount_sum) desc, s.id
+            limit :limit
+            """, nativeQuery = true)
+    List<SellerEntity> findMostProductiveSellers(@Param("dayFrom") LocalDate dayFrom,
+                                                 @Param("dayTo") LocalDate dayTo,
+                                                 @Param("limit") int limit);
+
+    @EntityGraph(attributePaths = "transactions")
+    Optional<SellerEntity> findWithTransactionsById(int id);
+
+    @Query("select s.id from SellerEntity s")
+    List<Integer> findAllIds();
+
+    @Query("select s.id from SellerEntity s where s.id in :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    @Query(value = "select id from sales_management.seller where id in (:ids) for key share", nativeQuery = true)
+    Set<Integer> lockExistingIds(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,140 @@
+package org.shiftlab.store.repos;
+
+import lombok.RequiredArgsConstructor;
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.store.projection.DailyPaymentTypeCount;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Set-based writes for bulk ingestion. Ids are taken from the transaction sequence in one round trip, rows
+ * are inserted with JDBC batches (rewritten into multi-row inserts by the driver) and both rollups are
+ * updated with one {@code unnest} upsert each.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Integer> allocateIds(int count) {
+        return jdbcTemplate.queryForList(
+                "select nextval('sales_management.transaction_id_seq') from generate_series(1, ?)",
+                Integer.class, count);
+    }
+
+    public void insertAll(List<Row> rows, int batchSize) {
+        jdbcTemplate.batchUpdate("""
+                        insert into sales_management.transaction (id, seller_id, amount, payment_type, transaction_date)
+                        values (?, ?, ?, ?, ?)
+                        """,
+                rows, batchSize, (ps, row) -> {
+                    ps.setInt(1, row.id());
+                    ps.setInt(2, row.sellerId());
+                    ps.setBigDecimal(3, row.amount());
+                    ps.setString(4, row.paymentType().name());
+                    ps.setTimestamp(5, Timestamp.valueOf(row.transactionDate()));
+                });
+    }
+
+    public Set<Integer> findStoredIds(Collection<Integer> ids) {
+        return new HashSet<>(jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "select id from sales_management.transaction where id = any(?)");
+            ps.setArray(1, array(connection, "integer", ids.stream()));
+            return ps;
+        }, (rs, rowNum) -> rs.getInt(1)));
+    }
+
+    public List<DailyPaymentTypeCount> addToDailyStats(List<Row> rows) {
+        Map<DailyKey, Totals> groups = new LinkedHashMap<>();
+        for(Row row : rows) {
+            groups.computeIfAbsent(new DailyKey(row.sellerId(), row.transactionDate().toLocalDate(), row.paymentType()),
+                    key -> new Totals()).add(row.amount());
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement("""
+                    insert into sales_management.seller_daily_stats
+                        (seller_id, transaction_day, payment_type, transaction_count, amount_sum)
+                    select * from unnest(?::bigint[], ?::date[], ?::varchar[], ?::bigint[], ?::numeric[])
+                    on conflict (seller_id, transaction_day, payment_type) do update
+                    set transaction_count = seller_daily_stats.transaction_count + excluded.transaction_count,
+                        amount_sum = seller_daily_stats.amount_sum + excluded.amount_sum
+                    returning seller_id, transaction_day, payment_type, transaction_count
+                    """);
+            ps.setArray(1, array(connection, "bigint", groups.keySet().stream().map(DailyKey::sellerId)));
+            ps.setArray(2, array(connection, "date", groups.keySet().stream().map(key -> Date.valueOf(key.day()))));
+            ps.setArray(3, array(connection, "varchar", groups.keySet().stream().map(key -> key.paymentType().name())));
+            setTotals(connection, ps, 4, groups.values());
+            return ps;
+        }, (rs, rowNum) -> new DailyPaymentTypeCount(
+                rs.getInt(1), rs.getDate(2).toLocalDate(), PaymentType.valueOf(rs.getString(3)), rs.getLong(4)));
+    }
+
+    public void addToHourlyStats(List<Row> rows) {
+        Map<HourlyKey, Totals> groups = new LinkedHashMap<>();
+        for(Row row : rows) {
+            groups.computeIfAbsent(new HourlyKey(row.sellerId(), row.transactionDate().truncatedTo(ChronoUnit.HOURS)),
+                    key -> new Totals()).add(row.amount());
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement("""
+                    insert into sales_management.seller_hourly_stats
+                        (seller_id, transaction_hour, transaction_count, amount_sum)
+                    select * from unnest(?::bigint[], ?::timestamp[], ?::bigint[], ?::numeric[])
+                    on conflict (seller_id, transaction_hour) do update
+                    set transaction_count = seller_hourly_stats.transaction_count + excluded.transaction_count,
+                        amount_sum = seller_hourly_stats.amount_sum + excluded.amount_sum
+                    """);
+            ps.setArray(1, array(connection, "bigint", groups.keySet().stream().map(HourlyKey::sellerId)));
+            ps.setArray(2, array(connection, "timestamp", groups.keySet().stream().map(key -> Timestamp.valueOf(key.hour()))));
+            setTotals(connection, ps, 3, groups.values());
+            return ps;
+        });
+    }
+
+    private static void setTotals(Connection connection, PreparedStatement ps, int index, Collection<Totals> totals) throws SQLException {
+        ps.setArray(index, array(connection, "bigint", totals.stream().map(total -> total.count)));
+        ps.setArray(index + 1, array(connection, "numeric", totals.stream().map(total -> total.amount)));
+    }
+
+    private static Array array(Connection connection, String type, Stream<?> values) throws SQLException {
+        return connection.createArrayOf(type, values.toArray());
+    }
+
+    public record Row(Integer id, int sellerId, BigDecimal amount, PaymentType paymentType, LocalDateTime transactionDate) {
+    }
+
+    private record DailyKey(int sellerId, LocalDate day, PaymentType paymentType) {
+    }
+
+    private record HourlyKey(int sellerId, LocalDateTime hour) {
+    }
+
+    private static final class Totals {
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        private void add(BigDecimal value) {
+            count++;
+            amount = amount.add(value);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.shiftlab.store.repos;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.shiftlab.dto.TransactionBatchError;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Bulk transfer through Postgres {@code COPY}, bypassing JPA and JDBC result sets: the server formats and
+ * parses the rows and the driver passes the bytes through unchanged.
+ * <p>
+ * Imports go through the {@code transaction_import} staging table, which only lives until the end of the
+ * database transaction. Its columns are text so that a bad value does not abort the {@code COPY}; rows are
+ * then checked and moved with one statement each.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionCopyRepository {
+    // timestamp input also accepts special values (infinity, epoch, now, today, 'tomorrow 10:00', ...), so dates
+    // have to be finite and written as an ISO date with an optional time
+    private static final String IMPORT_ROW_ERROR = """
+            case
+                when seller_id is null or not pg_input_is_valid(seller_id, 'bigint') then 'Invalid seller id'
+                when amount is null or not pg_input_is_valid(amount, 'numeric(15, 2)') then 'Invalid amount'
+                when amount::numeric(15, 2) = 'NaN' or amount::numeric(15, 2) <= 0 then 'Amount must be positive'
+                when payment_type is null or upper(payment_type) not in ('CASH', 'CARD', 'TRANSFER') then 'Invalid payment type'
+                when transaction_date is null or not pg_input_is_valid(transaction_date, 'timestamp') then 'Invalid transaction date'
+                when not isfinite(transaction_date::timestamp) then 'Invalid transaction date'
+                when transaction_date !~ '^\\s*\\d{4}-\\d{2}-\\d{2}([ T]\\d{1,2}:\\d{2}(:\\d{2}(\\.\\d+)?)?)?\\s*$' then 'Invalid transaction date'
+            end""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes the matching transactions to {@code out} as CSV with a header row, in id order. {@code null}
+     * means no condition, {@code from} is inclusive and {@code to} exclusive. Returns the number of rows.
+     */
+    public long copyOutCsv(Integer sellerId, LocalDateTime from, LocalDateTime to, OutputStream out) {
+        // COPY does not accept bind parameters, so the typed values are inlined as literals
+        StringBuilder query = new StringBuilder("""
+                select id, seller_id, amount, payment_type, transaction_date
+                from sales_management.transaction
+                where true""");
+        if(sellerId != null) {
+            query.append(" and seller_id = ").append(sellerId.intValue());
+        }
+        if(from != null) {
+            query.append(" and transaction_date >= ").append(timestamp(from));
+        }
+        if(to != null) {
+            query.append(" and transaction_date < ").append(timestamp(to));
+        }
+        query.append(" order by id");
+        String sql = "copy (" + query + ") to stdout with (format csv, header)";
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, out);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public void createImportTable() {
+        jdbcTemplate.execute("""
+                create temp table transaction_import (
+                    line bigint generated always as identity,
+                    seller_id text,
+                    amount text,
+                    payment_type text,
+                    transaction_date text,
+                    error text
+                ) on commit drop
+                """);
+    }
+
+    /**
+     * Loads CSV with the header {@code seller_id,amount,payment_type,transaction_date} into the staging table.
+     * The header must match the column names; otherwise the {@code COPY} fails and nothing is loaded.
+     */
+    public long copyInCsv(InputStream in) {
+        String sql = """
+                copy transaction_import (seller_id, amount, payment_type, transaction_date)
+                from stdin with (format csv, header match)
+                """;
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, in);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Marks staged rows with malformed values, then rows of unknown sellers with an anti-join against
+     * {@code seller}. Only rejected rows are rewritten. The referenced sellers are locked {@code for key share}
+     * in between, as {@link SellerRepository#lockExistingIds} does for batches, so a seller that passes the check
+     * cannot be deleted before the rows are moved.
+     */
+    public void rejectInvalidImportRows() {
+        jdbcTemplate.update("update transaction_import set error = " + IMPORT_ROW_ERROR
+                + " where " + IMPORT_ROW_ERROR + " is not null");
+        jdbcTemplate.queryForList("""
+                select s.id from sales_management.seller s
+                where s.id in (select seller_id::bigint from transaction_import where error is null)
+                order by s.id
+                for key share
+                """, Long.class);
+        jdbcTemplate.update("""
+                update transaction_import i set error = 'Seller not found'
+                where i.error is null
+                  and not exists (select 1 from sales_management.seller s where s.id = i.seller_id::bigint)
+                """);
+    }
+
+    /**
+     * Inserts all unrejected rows and adds them to both rollups in one statement. Returns the number of rows.
+     */
+    public long moveValidImportRows() {
+        return jdbcTemplate.queryForObject("""
+                with inserted as (
+                    insert into sales_management.transaction (seller_id, amount, payment_type, transaction_date)
+                    select seller_id::bigint, amount::numeric(15, 2), upper(payment_type), transaction_date::timestamp
+                    from transaction_import
+                    where error is null
+                    order by line
+                    returning seller_id, amount, payment_type, transaction_date
+                ), daily as (
+                    insert into sales_management.seller_daily_stats
+                        (seller_id, transaction_day, payment_type, transaction_count, amount_sum)
+                    select seller_id, transaction_date::date, payment_type, count(*), sum(amount)
+                    from inserted
+                    group by seller_id, transaction_date::date, payment_type
+                    on conflict (seller_id, transaction_day, payment_type) do update
+                    set transaction_count = seller_daily_stats.transaction_count + excluded.transaction_count,
+                        amount_sum = seller_daily_stats.amount_sum + excluded.amount_sum
+                ), hourly as (
+                    insert into sales_management.seller_hourly_stats
+                        (seller_id, transaction_hour, transaction_count, amount_sum)
+                    select seller_id, date_trunc('hour', transaction_date), count(*), sum(amount)
+                    from inserted
+                    group by seller_id, date_trunc('hour', transaction_date)
+                    on conflict (seller_id, transaction_hour) do update
+                    set transaction_count = seller_hourly_stats.transaction_count + excluded.transaction_count,
+                        amount_sum = seller_hourly_stats.amount_sum + excluded.amount_sum
+                )
+                select count(*) from inserted
+                """, Long.class);
+    }
+
+    public long countRejectedImportRows() {
+        return jdbcTemplate.queryForObject("select count(*) from transaction_import where error is not null", Long.class);
+    }
+
+    /**
+     * First {@code limit} rejected rows by file line number, counting the header as line 1.
+     */
+    public List<TransactionBatchError> findRejectedImportRows(int limit) {
+        return jdbcTemplate.query("""
+                        select line + 1, error from transaction_import
+                        where error is not null
+                        order by line
+                        limit ?
+                        """,
+                (rs, rowNum) -> new TransactionBatchError(rs.getInt(1), rs.getString(2)), limit);
+    }
+
+    private static String timestamp(LocalDateTime dateTime) {
+        return "'" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime) + "'::timestamp";
+    }
+}
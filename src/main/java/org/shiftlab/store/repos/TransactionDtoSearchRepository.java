@@ -0,0 +1,11 @@
+package org.shiftlab.store.repos;
+
+import org.shiftlab.dto.TransactionDto;
+import org.shiftlab.store.entity.TransactionEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface TransactionDtoSearchRepository {
+    List<TransactionDto> findDtos(Specification<TransactionEntity> specification, int limit);
+}
@@ -0,0 +1,39 @@
+package org.shiftlab.store.repos;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.shiftlab.dto.TransactionDto;
+import org.shiftlab.store.entity.TransactionEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Applies a {@link Specification} to a criteria query that constructs {@link TransactionDto} directly, the same
+ * projection as {@link TransactionRepository#SELECT_DTO}, ordered by id.
+ */
+@RequiredArgsConstructor
+public class TransactionDtoSearchRepositoryImpl implements TransactionDtoSearchRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TransactionDto> findDtos(Specification<TransactionEntity> specification, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionDto> query = criteriaBuilder.createQuery(TransactionDto.class);
+        Root<TransactionEntity> root = query.from(TransactionEntity.class);
+        query.select(criteriaBuilder.construct(TransactionDto.class,
+                        root.get("id"),
+                        root.get("amount"),
+                        root.get("paymentType"),
+                        root.get("registrationDate"),
+                        root.get("seller").get("id")))
+                .where(specification.toPredicate(root, query, criteriaBuilder))
+                .orderBy(criteriaBuilder.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,10 +1,47 @@
 package org.shiftlab.store.repos;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.shiftlab.dto.TransactionDto;
 import org.shiftlab.store.entity.TransactionEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Read methods select straight into {@link TransactionDto}, so no entity is hydrated or tracked and the seller
+ * id comes from the foreign key column.
+ */
 @Repository
-public interface TransactionRepository extends JpaRepository<TransactionEntity, Integer> {
+public interface TransactionRepository extends JpaRepository<TransactionEntity, Integer>, TransactionDtoSearchRepository {
+    String SELECT_DTO = """
+            select new org.shiftlab.dto.TransactionDto(t.id, t.amount, t.paymentType, t.registrationDate, t.seller.id)
+            from TransactionEntity t
+            """;
+
+    @Query(SELECT_DTO + "order by t.id")
+    List<TransactionDto> findAllDtos();
+
+    @Query(SELECT_DTO + "where t.id = :id")
+    Optional<TransactionDto> findDtoById(@Param("id") int id);
+
+    @Query("select t.version from TransactionEntity t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") int id);
+
+    @Query(SELECT_DTO + "where t.id > :after order by t.id")
+    List<TransactionDto> findDtosAfter(@Param("after") int after, Pageable page);
+
+    @Query(SELECT_DTO + "where t.seller.id = :sellerId and t.id > :after order by t.id")
+    List<TransactionDto> findSellerDtosAfter(@Param("sellerId") int sellerId, @Param("after") int after, Pageable page);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_DTO + "order by t.id")
+    Stream<TransactionDto> streamAllDtos();
 }
@@ -0,0 +1,2 @@
+CREATE INDEX idx_transaction_seller_id_transaction_date
+    ON sales_management.transaction (seller_id, transaction_date);
@@ -0,0 +1,20 @@
+CREATE TABLE sales_management.seller_daily_stats (
+    seller_id BIGINT NOT NULL,
+    transaction_day DATE NOT NULL,
+    payment_type VARCHAR(10) NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    amount_sum DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (seller_id, transaction_day, payment_type),
+    CONSTRAINT fk_seller
+      FOREIGN KEY (seller_id)
+          REFERENCES sales_management.seller (id)
+          ON DELETE CASCADE
+);
+
+CREATE INDEX idx_seller_daily_stats_transaction_day
+    ON sales_management.seller_daily_stats (transaction_day);
+
+INSERT INTO sales_management.seller_daily_stats (seller_id, transaction_day, payment_type, transaction_count, amount_sum)
+SELECT seller_id, transaction_date::date, payment_type, count(*), sum(amount)
+FROM sales_management.transaction
+GROUP BY seller_id, transaction_date::date, payment_type;
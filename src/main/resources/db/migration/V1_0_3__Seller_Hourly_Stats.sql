@@ -0,0 +1,16 @@
+CREATE TABLE sales_management.seller_hourly_stats (
+    seller_id BIGINT NOT NULL,
+    transaction_hour TIMESTAMP NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    amount_sum DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (seller_id, transaction_hour),
+    CONSTRAINT fk_seller
+      FOREIGN KEY (seller_id)
+          REFERENCES sales_management.seller (id)
+          ON DELETE CASCADE
+);
+
+INSERT INTO sales_management.seller_hourly_stats (seller_id, transaction_hour, transaction_count, amount_sum)
+SELECT seller_id, date_trunc('hour', transaction_date), count(*), sum(amount)
+FROM sales_management.transaction
+GROUP BY seller_id, date_trunc('hour', transaction_date);
@@ -0,0 +1,10 @@
+CREATE INDEX idx_transaction_seller_id_payment_type_transaction_date
+    ON sales_management.transaction (seller_id, payment_type, transaction_date);
+
+CREATE INDEX idx_transaction_transaction_date
+    ON sales_management.transaction (transaction_date);
+
+-- searches for large transactions (amountFrom >= 500) read only this small index
+CREATE INDEX idx_transaction_large_amount_transaction_date
+    ON sales_management.transaction (amount, transaction_date)
+    WHERE amount >= 500;
@@ -0,0 +1,2 @@
+CREATE INDEX idx_transaction_seller_id_id
+    ON sales_management.transaction (seller_id, id);
@@ -0,0 +1,5 @@
+ALTER TABLE sales_management.seller
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE sales_management.transaction
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
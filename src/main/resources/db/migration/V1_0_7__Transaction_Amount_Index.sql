@@ -0,0 +1,5 @@
+-- the partial index is never used: amountFrom is a bind parameter, so the planner cannot prove amount >= 500
+DROP INDEX sales_management.idx_transaction_large_amount_transaction_date;
+
+CREATE INDEX idx_transaction_amount_transaction_date
+    ON sales_management.transaction (amount, transaction_date);
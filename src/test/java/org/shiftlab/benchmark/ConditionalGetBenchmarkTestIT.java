@@ -0,0 +1,81 @@
+package org.shiftlab.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.shiftlab.Main;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Clients polling unchanged resources, with and without {@code If-None-Match}. Prints the response bytes and
+ * server CPU per poll. Run with {@code BENCHMARK=true ./gradlew test --tests '*BenchmarkTestIT'}.
+ */
+@SpringBootTest(classes = Main.class)
+@AutoConfigureMockMvc
+@EnabledIfEnvironmentVariable(named = "BENCHMARK", matches = "true")
+public class ConditionalGetBenchmarkTestIT {
+    private static final int SELLERS = 1_000;
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                insert into sales_management.seller (name, contact_info, registration_date)
+                select 'Seller ' || i, '000-000-0000', now() from generate_series(1, ?) i
+                """, SELLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from sales_management.seller");
+    }
+
+    @Test
+    void pollSellerList() throws Exception {
+        poll("GET /seller", get("/seller"));
+    }
+
+    @Test
+    void pollSeller() throws Exception {
+        Integer id = jdbcTemplate.queryForObject("select min(id) from sales_management.seller", Integer.class);
+        poll("GET /seller/{id}", get("/seller/" + id));
+    }
+
+    private void poll(String name, MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult first = perform(request);
+        String eTag = first.getResponse().getHeader("ETag");
+        int fullBytes = first.getResponse().getContentAsByteArray().length;
+
+        var full = Measurement.of(name + " full", 20, 200, () -> perform(request));
+        var conditional = Measurement.of(name + " If-None-Match", 20, 200, () -> perform(request.header("If-None-Match", eTag)));
+        int notModifiedBytes = perform(request.header("If-None-Match", eTag)).getResponse().getContentAsByteArray().length;
+
+        System.out.printf("%s body bytes per poll: %d -> %d%n", name, fullBytes, notModifiedBytes);
+        assertEquals(0, notModifiedBytes);
+        assertTrue(conditional.cpuMillisPerRun() < full.cpuMillisPerRun());
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request) {
+        try {
+            return mvc.perform(request).andReturn();
+        }
+        catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.shiftlab.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Median latency, mean CPU time and mean bytes allocated by the calling thread for one run of an operation.
+ */
+record Measurement(String name, double medianMillis, double cpuMillisPerRun, long bytesPerRun) {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    static Measurement of(String name, int warmups, int runs, Runnable operation) {
+        for(int i = 0; i < warmups; i++) {
+            operation.run();
+        }
+        long[] nanos = new long[runs];
+        long allocated = 0;
+        long cpuNanos = 0;
+        for(int i = 0; i < runs; i++) {
+            long bytesBefore = THREADS.getCurrentThreadAllocatedBytes();
+            long cpuBefore = THREADS.getCurrentThreadCpuTime();
+            long start = System.nanoTime();
+            operation.run();
+            nanos[i] = System.nanoTime() - start;
+            cpuNanos += THREADS.getCurrentThreadCpuTime() - cpuBefore;
+            allocated += THREADS.getCurrentThreadAllocatedBytes() - bytesBefore;
+        }
+        Arrays.sort(nanos);
+        Measurement measurement = new Measurement(name, nanos[runs / 2] / 1e6, cpuNanos / 1e6 / runs, allocated / runs);
+        System.out.println(measurement);
+        return measurement;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-45s %10.2f ms %10.2f ms cpu %12d KB/op", name, medianMillis, cpuMillisPerRun, bytesPerRun / 1024);
+    }
+}
@@ -0,0 +1,79 @@
+package org.shiftlab.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.shiftlab.Main;
+import org.shiftlab.services.SellerService;
+import org.shiftlab.services.TransactionService;
+import org.shiftlab.services.mapper.EntityDtoMapper;
+import org.shiftlab.store.repos.SellerRepository;
+import org.shiftlab.store.repos.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Entity-then-map reads (the previous implementation) against the read-only DTO projections of the list
+ * endpoints. Run with {@code BENCHMARK=true ./gradlew test --tests '*BenchmarkTestIT'}.
+ */
+@SpringBootTest(classes = Main.class)
+@EnabledIfEnvironmentVariable(named = "BENCHMARK", matches = "true")
+public class ReadPathBenchmarkTestIT {
+    private static final int SELLERS = 1_000;
+    private static final int TRANSACTIONS = 50_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    TransactionRepository transactionRepository;
+    @Autowired
+    SellerRepository sellerRepository;
+    @Autowired
+    EntityDtoMapper entityDtoMapper;
+    @Autowired
+    TransactionService transactionService;
+    @Autowired
+    SellerService sellerService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                insert into sales_management.seller (name, contact_info, registration_date)
+                select 'Seller ' || i, '000-000-0000', now() from generate_series(1, ?) i
+                """, SELLERS);
+        jdbcTemplate.update("""
+                insert into sales_management.transaction (seller_id, amount, payment_type, transaction_date)
+                select s.id, (i % 1000) + 0.99, (array['CASH', 'CARD', 'TRANSFER'])[i % 3 + 1], now() - i * interval '1 minute'
+                from generate_series(1, ?) i
+                join (select id, row_number() over (order by id) - 1 as n from sales_management.seller) s on s.n = i % ?
+                """, TRANSACTIONS, SELLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from sales_management.seller");
+    }
+
+    @Test
+    void listTransactions() {
+        var entities = Measurement.of("GET /transaction entities", 3, 10, () -> transactionTemplate.execute(status ->
+                transactionRepository.findAll().stream().map(entityDtoMapper::mapToTransactionDto).toList()));
+        var projections = Measurement.of("GET /transaction projections", 3, 10, transactionService::findAllTransactions);
+        assertTrue(projections.bytesPerRun() < entities.bytesPerRun());
+    }
+
+    @Test
+    void listSellers() {
+        var entities = Measurement.of("GET /seller entities", 3, 20, () -> transactionTemplate.execute(status ->
+                sellerRepository.findAll().stream().map(entityDtoMapper::mapToSellerDto).toList()));
+        var projections = Measurement.of("GET /seller projections", 3, 20, sellerService::findAllSellers);
+        assertTrue(projections.bytesPerRun() < entities.bytesPerRun());
+    }
+}
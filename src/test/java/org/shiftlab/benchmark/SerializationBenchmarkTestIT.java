@@ -0,0 +1,68 @@
+package org.shiftlab.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.shiftlab.Main;
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.dto.TransactionDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Payload size and serialization time of a {@code GET /transaction} body in each negotiated format, using the
+ * application's own mappers. Run with {@code BENCHMARK=true ./gradlew test --tests '*BenchmarkTestIT'}.
+ */
+@SpringBootTest(classes = Main.class)
+@EnabledIfEnvironmentVariable(named = "BENCHMARK", matches = "true")
+public class SerializationBenchmarkTestIT {
+    private static final int TRANSACTIONS = 50_000;
+
+    @Autowired
+    MappingJackson2HttpMessageConverter jsonConverter;
+    @Autowired
+    MappingJackson2CborHttpMessageConverter cborConverter;
+    @Autowired
+    MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    private final List<TransactionDto> transactions = IntStream.rangeClosed(1, TRANSACTIONS)
+            .mapToObj(i -> new TransactionDto(i,
+                    BigDecimal.valueOf(i * 37L % 100_000, 2),
+                    PaymentType.values()[i % PaymentType.values().length],
+                    LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i),
+                    i % 1_000 + 1))
+            .toList();
+
+    @Test
+    void transactionList() throws Exception {
+        int json = measure("json", jsonConverter.getObjectMapper());
+        int cbor = measure("cbor", cborConverter.getObjectMapper());
+        int smile = measure("smile", smileConverter.getObjectMapper());
+        assertTrue(cbor < json);
+        assertTrue(smile < json);
+    }
+
+    private int measure(String format, ObjectMapper objectMapper) throws Exception {
+        int size = objectMapper.writeValueAsBytes(transactions).length;
+        Measurement.of("List<TransactionDto> " + format, 5, 20, () -> {
+            try {
+                objectMapper.writeValueAsBytes(transactions);
+            }
+            catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        System.out.printf("List<TransactionDto> %s payload: %d KB%n", format, size / 1024);
+        return size;
+    }
+}
@@ -27,6 +27,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -102,6 +104,41 @@ public class SellerRestControllerTestIT {
 
                   ]"""));
     }
+
+    @Test
+    @Sql("/sql/seller.sql")
+    @DisplayName("Get sellers page - Should return sellers after cursor and next cursor")
+    void getSellersPage_SellersExist_ReturnPageWithNext() throws Exception {
+        //given
+        var requestBuilder = get(url).param("after", "1").param("limit", "1");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().contentType(MediaType.APPLICATION_JSON),
+                content().json("""
+                {
+                    "items": [
+                        {
+                            "id": 2,
+                            "name": "Elmer Runte"
+                        }
+                    ],
+                    "next": 2
+                }"""));
+    }
+
+    @Test
+    @DisplayName("Get sellers page - Should return 400 when limit is out of range")
+    void getSellersPage_LimitTooLarge_ReturnBadRequest() throws Exception {
+        //given
+        var requestBuilder = get(url).param("limit", "1001");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isBadRequest()
+        );
+    }
     @Test
     @Sql("/sql/seller.sql")
     @DisplayName("Get seller by id - Should return seller when seller exist")
@@ -124,6 +161,97 @@ public class SellerRestControllerTestIT {
                     """));
     }
     @Test
+    @Sql("/sql/seller.sql")
+    @DisplayName("Get seller by id - Should return 304 without body when ETag matches the version")
+    void getSellerById_ETagMatches_ReturnNotModified() throws Exception {
+        //given
+        var eTag = mvc.perform(get(url + "/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        var requestBuilder = get(url + "/1").header("If-None-Match", eTag);
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isNotModified(),
+                header().string("ETag", "\"0\""),
+                content().string("")
+        );
+    }
+    @Test
+    @Sql("/sql/seller.sql")
+    @DisplayName("Get all sellers - Should return 304 when table token matches and 200 when it does not")
+    void getAllSellers_ETagMatches_ReturnNotModified() throws Exception {
+        //given
+        var eTag = mvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        //when
+        mvc.perform(get(url).header("If-None-Match", eTag)).andExpectAll(
+                //then
+                status().isNotModified(),
+                content().string("")
+        );
+        mvc.perform(get(url).header("If-None-Match", "\"stale\"")).andExpect(status().isOk());
+    }
+    @Test
+    @Sql("/sql/insert.sql")
+    @DisplayName("Get seller transactions - Should return first page of seller transactions and next cursor")
+    void getSellerTransactions_SellerExists_ReturnPage() throws Exception {
+        //given
+        var requestBuilder = get(url + "/1/transactions").param("limit", "2");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().contentType(MediaType.APPLICATION_JSON),
+                content().json("""
+                        {
+                          "items": [
+                            {
+                              "id": 1,
+                              "amount": 500.12,
+                              "paymentType": "TRANSFER",
+                              "transactionDate": "2024-09-11T14:30:00",
+                              "sellerId": 1
+                            },
+                            {
+                              "id": 2,
+                              "amount": 100.50,
+                              "paymentType": "CARD",
+                              "transactionDate": "2024-09-11T15:00:00",
+                              "sellerId": 1
+                            }
+                          ],
+                          "next": 2
+                        }
+                        """));
+    }
+    @Test
+    @Sql("/sql/insert.sql")
+    @DisplayName("Get seller transactions - Should return no next cursor when the last page is exactly full")
+    void getSellerTransactions_ExactlyFullLastPage_ReturnPageWithoutNext() throws Exception {
+        //given
+        var requestBuilder = get(url + "/1/transactions").param("limit", "3");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                jsonPath("$.items.length()").value(3),
+                jsonPath("$.next").isEmpty()
+        );
+    }
+    @Test
+    @DisplayName("Get seller transactions - Should return 404 when seller does not exist")
+    void getSellerTransactions_SellerNotExists_ReturnNotFound() throws Exception {
+        //given
+        var requestBuilder = get(url + "/99/transactions");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isNotFound()
+        );
+    }
+    @Test
     @Sql("/sql/insert.sql")
     @DisplayName("Get seller by id - Should return seller with transaction when seller exist and transaction is true in params")
     void getSellerById_SellerExistsTransactionParamIsTrue_ReturnSellerAndHisTransaction() throws Exception {
@@ -373,6 +501,72 @@ public class SellerRestControllerTestIT {
                         """)
         );
 
+    }
+    @Test
+    @DisplayName("Get most productive sellers approximately - Should answer from the sketch with error bounds")
+    void getMostProductiveSellersApproximately_PeriodIsValid_ReturnsApproximateTop() throws Exception {
+        //given
+        var requestBuilder = get(url+"/most-productive")
+                .param("period","year")
+                .param("limit","2")
+                .param("approx","true");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().contentType(MediaType.APPLICATION_JSON),
+                jsonPath("$.sellers").isArray(),
+                jsonPath("$.maxUntrackedTotal").exists()
+        );
+    }
+    @Test
+    @DisplayName("Get most productive sellers approximately - Should return 400 when limit is not positive")
+    void getMostProductiveSellersApproximately_LimitIsZero_ReturnBadRequest() throws Exception {
+        //given
+        var requestBuilder = get(url+"/most-productive")
+                .param("period","year")
+                .param("limit","0")
+                .param("approx","true");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isBadRequest()
+        );
+    }
+    @Test
+    @Sql("/sql/insert.sql")
+    @DisplayName("Get most productive sellers in period(year) with limit - Should return top sellers ordered by sum")
+    void getMostProductiveSellersInPeriod_PayloadIsValidLimitIsTwo_ReturnsTopTwoSellers() throws Exception {
+        //given
+        var requestBuilder = get(url+"/most-productive")
+                .param("period","year")
+                .param("limit","2");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().contentType(MediaType.APPLICATION_JSON),
+                jsonPath("$.length()").value(2),
+                jsonPath("$[0].id").value(1),
+                jsonPath("$[1].id").value(2)
+        );
+
+    }
+    @Test
+    @Sql("/sql/insert.sql")
+    @DisplayName("Get most productive sellers in period with limit - Should return bad request when limit is not positive")
+    void getMostProductiveSellersInPeriod_LimitIsZero_ReturnsBadRequest() throws Exception {
+        //given
+        var requestBuilder = get(url+"/most-productive")
+                .param("period","year")
+                .param("limit","0");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isBadRequest(),
+                content().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+        );
+
     }
     @Test
     @Sql("/sql/insert.sql")
@@ -404,6 +598,78 @@ public class SellerRestControllerTestIT {
         );
     }
 
+    @Test
+    @Sql("/sql/insert.sql")
+    @DisplayName("Get seller series by hour - Should return non-empty hour buckets")
+    void getSellerSeries_GranularityIsHour_ReturnsHourBuckets() throws Exception {
+        //given
+        var requestBuilder = get(url+"/1/series")
+                .param("granularity","hour")
+                .param("from","2024-09-01")
+                .param("to","2024-09-30");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().contentType(MediaType.APPLICATION_JSON),
+                content().json("""
+                        [
+                            {"start":"2024-09-11T14:00:00","count":2,"sum":825.63},
+                            {"start":"2024-09-11T15:00:00","count":1,"sum":100.50}
+                        ]
+                        """)
+        );
+    }
+    @Test
+    @Sql("/sql/insert.sql")
+    @DisplayName("Get seller series by week - Should return buckets starting on monday")
+    void getSellerSeries_GranularityIsWeek_ReturnsWeekBuckets() throws Exception {
+        //given
+        var requestBuilder = get(url+"/1/series")
+                .param("granularity","week")
+                .param("from","2024-09-01")
+                .param("to","2024-09-30");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().json("""
+                        [{"start":"2024-09-09T00:00:00","count":3,"sum":926.13}]
+                        """)
+        );
+    }
+    @Test
+    @DisplayName("Get seller series - Should return not found when seller doesn't exist")
+    void getSellerSeries_SellerNotExist_ReturnsNotFound() throws Exception {
+        //given
+        var requestBuilder = get(url+"/1/series")
+                .param("granularity","day")
+                .param("from","2024-09-01")
+                .param("to","2024-09-30");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isNotFound(),
+                content().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+        );
+    }
+    @Test
+    @Sql("/sql/insert.sql")
+    @DisplayName("Get seller series - Should return bad request when granularity is invalid")
+    void getSellerSeries_GranularityIsInvalid_ReturnsBadRequest() throws Exception {
+        //given
+        var requestBuilder = get(url+"/1/series")
+                .param("granularity","minute")
+                .param("from","2024-09-01")
+                .param("to","2024-09-30");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isBadRequest(),
+                content().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+        );
+    }
+
     @Test
     @Sql("/sql/insert.sql")
     @DisplayName("Get sellers which sum of transaction`s amount less then very large sum and transaction filtered by date "+
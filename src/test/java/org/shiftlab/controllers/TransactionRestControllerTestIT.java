@@ -6,23 +6,33 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.shiftlab.Main;
 import org.shiftlab.controllers.payload.NewTransactionPayload;
+import org.shiftlab.dto.PaymentType;
 import org.shiftlab.dto.TransactionDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = {Main.class})
@@ -33,6 +43,9 @@ public class TransactionRestControllerTestIT {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private List<AbstractJackson2HttpMessageConverter> jacksonConverters;
+
     @Autowired
     MockMvc mvc;
 
@@ -53,6 +66,58 @@ public class TransactionRestControllerTestIT {
         );
     }
 
+    @Test
+    @DisplayName("Export transactions as csv - Should return only header when transactions dont exist")
+    void exportTransactionsCsv_TransactionNotExists_ReturnHeader() throws Exception {
+        //given
+        var requestBuilder = get(url + "/export/csv");
+        //when
+        var result = mvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(asyncDispatch(result)).andExpectAll(
+                //then
+                status().isOk(),
+                content().contentType("text/csv"),
+                content().string("id,seller_id,amount,payment_type,transaction_date\n")
+        );
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    @Sql("/sql/insert.sql")
+    @Sql(scripts = "/sql/clean.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+    @DisplayName("Export transactions as csv - Should return filtered transactions in id order")
+    void exportTransactionsCsv_FiltersPassed_ReturnMatchingRows() throws Exception {
+        //given
+        var requestBuilder = get(url + "/export/csv")
+                .param("sellerId", "1")
+                .param("from", "2024-09-11")
+                .param("to", "2024-09-11");
+        //when
+        var result = mvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(asyncDispatch(result)).andExpectAll(
+                //then
+                status().isOk(),
+                content().string("""
+                        id,seller_id,amount,payment_type,transaction_date
+                        1,1,500.12,TRANSFER,2024-09-11 14:30:00
+                        2,1,100.50,CARD,2024-09-11 15:00:00
+                        3,1,325.51,TRANSFER,2024-09-11 14:45:00
+                        """)
+        );
+    }
+
+    @Test
+    @DisplayName("Export transactions as csv - Should return 400 when date from is after date to")
+    void exportTransactionsCsv_DateFromAfterDateTo_ReturnBadRequest() throws Exception {
+        //given
+        var requestBuilder = get(url + "/export/csv").param("from", "2024-10-02").param("to", "2024-10-01");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isBadRequest()
+        );
+    }
+
     @Test
     @Sql("/sql/insert.sql")
     @DisplayName("Get all transactions - Should return list of transactions when transactions exist")
@@ -111,6 +176,155 @@ public class TransactionRestControllerTestIT {
                     }
                 ]"""));
     }
+
+    @Test
+    @Sql("/sql/insert.sql")
+    @DisplayName("Search transactions - Should return transactions matching all filters")
+    void searchTransactions_AllFilters_ReturnMatchingTransactions() throws Exception {
+        //given
+        var requestBuilder = get(url + "/search")
+                .param("sellerId", "1")
+                .param("paymentType", "transfer")
+                .param("from", "2024-09-11")
+                .param("to", "2024-09-11")
+                .param("amountFrom", "400");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().contentType(MediaType.APPLICATION_JSON),
+                content().json("""
+                {
+                    "items": [
+                        {
+                            "id": 1,
+                            "amount": 500.12,
+                            "paymentType": "TRANSFER",
+                            "transactionDate": "2024-09-11T14:30:00",
+                            "sellerId": 1
+                        }
+                    ],
+                    "next": null
+                }"""),
+                jsonPath("$.items.length()").value(1)
+        );
+    }
+
+    @Test
+    @Sql("/sql/insert.sql")
+    @DisplayName("Search transactions - Should page results by id")
+    void searchTransactions_FullPage_ReturnNextCursor() throws Exception {
+        //given
+        var requestBuilder = get(url + "/search")
+                .param("from", "2024-09-11")
+                .param("to", "2024-10-03")
+                .param("after", "1")
+                .param("limit", "2");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().json("""
+                {
+                    "items": [
+                        {
+                            "id": 2
+                        },
+                        {
+                            "id": 3
+                        }
+                    ],
+                    "next": 3
+                }""")
+        );
+    }
+
+    @Test
+    @DisplayName("Search transactions - Should return 400 when payment type is invalid")
+    void searchTransactions_InvalidPaymentType_ReturnBadRequest() throws Exception {
+        //given
+        var requestBuilder = get(url + "/search").param("paymentType", "DOLLAR");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isBadRequest()
+        );
+    }
+
+    @Test
+    @Sql("/sql/insert.sql")
+    @DisplayName("Get transaction by id - Should return 304 when ETag matches the version")
+    void getTransactionById_ETagMatches_ReturnNotModified() throws Exception {
+        //given
+        var requestBuilder = get(url + "/1").header("If-None-Match", "\"0\"");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isNotModified(),
+                content().string("")
+        );
+    }
+
+    @Test
+    @DisplayName("Export transactions - Should stream empty json array when transactions dont exist")
+    void exportTransactions_TransactionNotExists_ReturnEmptyArray() throws Exception {
+        //given
+        var requestBuilder = get(url + "/export");
+        //when
+        var result = mvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(asyncDispatch(result)).andExpectAll(
+                //then
+                status().isOk(),
+                content().json("[]")
+        );
+    }
+
+    @Test
+    @Sql("/sql/insert.sql")
+    @DisplayName("Get transactions page - Should return last page without next cursor")
+    void getTransactionsPage_LastPage_ReturnPageWithoutNext() throws Exception {
+        //given
+        var requestBuilder = get(url).param("after", "4").param("limit", "5");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().contentType(MediaType.APPLICATION_JSON),
+                content().json("""
+                {
+                    "items": [
+                        {
+                            "id": 5,
+                            "amount": 52.78,
+                            "paymentType": "CASH",
+                            "transactionDate": "2024-10-03T11:00:00",
+                            "sellerId": 2
+                        },
+                        {
+                            "id": 6,
+                            "amount": 5.61,
+                            "paymentType": "CASH",
+                            "transactionDate": "2024-10-19T12:30:00",
+                            "sellerId": 3
+                        }
+                    ],
+                    "next": null
+                }"""),
+                jsonPath("$.items.length()").value(2)
+        );
+    }
+
+    @Test
+    @DisplayName("Get transactions page - Should return 400 when after is negative")
+    void getTransactionsPage_NegativeAfter_ReturnBadRequest() throws Exception {
+        //given
+        var requestBuilder = get(url).param("after", "-1").param("limit", "10");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isBadRequest()
+        );
+    }
     @Test
     @Sql("/sql/insert.sql")
     @DisplayName("Get transaction by id - Should return transaction when transaction exist")
@@ -144,6 +358,33 @@ public class TransactionRestControllerTestIT {
                 status().isNotFound(),
                 content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
     }
+    @ParameterizedTest
+    @ValueSource(strings = {"application/cbor", "application/x-jackson-smile"})
+    @Sql("/sql/insert.sql")
+    @DisplayName("Get transaction by id - Should return transaction in binary format when it is accepted")
+    void getTransactionById_BinaryFormatAccepted_ReturnTransaction(String format) throws Exception {
+        //given
+        MediaType mediaType = MediaType.parseMediaType(format);
+        var requestBuilder = get(url + "/1").accept(mediaType);
+        //when
+        var response = mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().contentType(mediaType)
+        ).andReturn().getResponse().getContentAsByteArray();
+        ObjectMapper binaryMapper = jacksonConverters.stream()
+                .filter(converter -> converter.canRead(TransactionDto.class, mediaType))
+                .findFirst()
+                .orElseThrow()
+                .getObjectMapper();
+        assertThat(binaryMapper.readValue(response, TransactionDto.class)).isEqualTo(TransactionDto.builder()
+                .id(1)
+                .amount(new BigDecimal("500.12"))
+                .paymentType(PaymentType.TRANSFER)
+                .transactionDate(LocalDateTime.of(2024, 9, 11, 14, 30))
+                .sellerId(1)
+                .build());
+    }
 
     @ParameterizedTest
     @MethodSource("validPayloadNewTransaction")
@@ -199,6 +440,233 @@ public class TransactionRestControllerTestIT {
                         status().isNotFound(),
                         content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
     }
+    @Test
+    @Sql("/sql/insert.sql")
+    @DisplayName("Get payment type stats - Should return count, sum and average for each payment type")
+    void getPaymentTypeStats_TransactionsExist_ReturnStats() throws Exception {
+        //given
+        var requestBuilder = get(url+"/stats/payment-types")
+                .param("from","2024-09-01")
+                .param("to","2024-10-31");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().contentType(MediaType.APPLICATION_JSON),
+                content().json("""
+                        [
+                            {"paymentType":"CARD","count":2,"sum":113.03,"average":56.52},
+                            {"paymentType":"CASH","count":2,"sum":58.39,"average":29.20},
+                            {"paymentType":"TRANSFER","count":2,"sum":825.63,"average":412.82}
+                        ]
+                        """, true)
+        );
+    }
+    @Test
+    @Sql("/sql/insert.sql")
+    @DisplayName("Get payment type stats of seller - Should return stats only for this seller")
+    void getPaymentTypeStats_SellerIdIsSet_ReturnSellerStats() throws Exception {
+        //given
+        var requestBuilder = get(url+"/stats/payment-types")
+                .param("from","2024-09-01")
+                .param("to","2024-10-31")
+                .param("sellerId","1");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().json("""
+                        [
+                            {"paymentType":"CARD","count":1,"sum":100.50,"average":100.50},
+                            {"paymentType":"TRANSFER","count":2,"sum":825.63,"average":412.82}
+                        ]
+                        """, true)
+        );
+    }
+    @Test
+    @DisplayName("Get payment type stats - Should return bad request when date from is after date to")
+    void getPaymentTypeStats_DateFromAfterDateTo_ReturnBadRequest() throws Exception {
+        //given
+        var requestBuilder = get(url+"/stats/payment-types")
+                .param("from","2024-10-31")
+                .param("to","2024-09-01");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isBadRequest(),
+                content().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+        );
+    }
+    @Test
+    @Sql("/sql/seller.sql")
+    @DisplayName("Create transactions in batch - Should insert valid items and report invalid ones")
+    void createTransactions_SomeItemsInvalid_ReturnIdsAndErrors() throws Exception {
+        //given
+        var payloads = List.of(
+                new NewTransactionPayload(1, BigDecimal.valueOf(50.5), "TRANSFER"),
+                new NewTransactionPayload(9, BigDecimal.valueOf(25.0), "CASH"),
+                new NewTransactionPayload(2, BigDecimal.valueOf(125.88), "DOLLAR"),
+                new NewTransactionPayload(1, BigDecimal.valueOf(10), "TRANSFER"));
+        var requestBuilder = post(url+"/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(payloads));
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().contentType(MediaType.APPLICATION_JSON),
+                jsonPath("$.ids.length()").value(4),
+                jsonPath("$.ids[0]").isNumber(),
+                jsonPath("$.ids[1]").isEmpty(),
+                jsonPath("$.ids[2]").isEmpty(),
+                jsonPath("$.ids[3]").isNumber(),
+                jsonPath("$.errors[0].index").value(1),
+                jsonPath("$.errors[1].index").value(2)
+        );
+        mvc.perform(get("/seller/1/series")
+                        .param("granularity","day")
+                        .param("from","2000-01-01")
+                        .param("to","2100-01-01"))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$[0].count").value(2),
+                        jsonPath("$[0].sum").value(60.5)
+                );
+    }
+    @Test
+    @DisplayName("Create transactions in batch - Should return bad request when batch is empty")
+    void createTransactions_EmptyBatch_ReturnBadRequest() throws Exception {
+        //given
+        var requestBuilder = post(url+"/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]");
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isBadRequest(),
+                content().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+        );
+    }
+    @Test
+    @Sql("/sql/seller.sql")
+    @DisplayName("Ingest transactions stream - Should return accepted and rejected counts")
+    void ingestTransactions_NdjsonWithInvalidLines_ReturnSummary() throws Exception {
+        //given
+        var requestBuilder = post(url+"/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("""
+                        {"sellerId":1,"amount":10.5,"paymentType":"CASH"}
+                        {"sellerId":1,"amount":
+                        {"sellerId":2,"amount":20,"paymentType":"CARD"}
+                        {"sellerId":9,"amount":20,"paymentType":"CARD"}
+                        """);
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().contentType(MediaType.APPLICATION_JSON),
+                jsonPath("$.accepted").value(2),
+                jsonPath("$.rejected").value(2),
+                jsonPath("$.errors[0].index").value(2),
+                jsonPath("$.errors[1].index").value(4)
+        );
+    }
+    @Test
+    @Sql("/sql/seller.sql")
+    @DisplayName("Import transactions csv - Should store valid rows and report rejected lines")
+    void importTransactions_CsvWithInvalidRows_ReturnSummary() throws Exception {
+        //given
+        var requestBuilder = post(url+"/import/csv")
+                .contentType("text/csv")
+                .content("""
+                        seller_id,amount,payment_type,transaction_date
+                        1,10.50,cash,2024-09-01 10:00:00
+                        1,abc,CARD,2024-09-01 11:00:00
+                        9,20,CARD,2024-09-01 12:00:00
+                        2,7.25,TRANSFER,2024-09-02T09:30:00
+                        """);
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                content().contentType(MediaType.APPLICATION_JSON),
+                content().json("""
+                        {
+                            "accepted": 2,
+                            "rejected": 2,
+                            "errors": [
+                                {"index": 3, "message": "Invalid amount"},
+                                {"index": 4, "message": "Seller not found"}
+                            ]
+                        }
+                        """)
+        );
+        mvc.perform(get(url)).andExpectAll(
+                status().isOk(),
+                jsonPath("$[0].sellerId").value(1),
+                jsonPath("$[0].paymentType").value("CASH"),
+                jsonPath("$[1].sellerId").value(2),
+                jsonPath("$[1].transactionDate").value("2024-09-02T09:30:00")
+        );
+    }
+    @Test
+    @Sql("/sql/seller.sql")
+    @DisplayName("Import transactions csv - Should reject special and non-finite dates")
+    void importTransactions_SpecialDates_ReturnRejectedLines() throws Exception {
+        //given
+        var requestBuilder = post(url+"/import/csv")
+                .contentType("text/csv")
+                .content("""
+                        seller_id,amount,payment_type,transaction_date
+                        1,10,CASH,infinity
+                        1,10,CASH,-infinity
+                        1,10,CASH,now
+                        1,10,CASH,today
+                        1,10,CASH,tomorrow 10:00
+                        1,10,CASH,epoch
+                        1,10,CASH,2024-09-01 10:00:00
+                        """);
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isOk(),
+                jsonPath("$.accepted").value(1),
+                jsonPath("$.rejected").value(6),
+                jsonPath("$.errors[*].message").value(everyItem(is("Invalid transaction date")))
+        );
+    }
+    @Test
+    @DisplayName("Import transactions csv - Should return 400 when header does not match columns")
+    void importTransactions_HeaderMismatch_ReturnBadRequest() throws Exception {
+        //given
+        var requestBuilder = post(url+"/import/csv")
+                .contentType("text/csv")
+                .content("""
+                        amount,seller_id,payment_type,transaction_date
+                        10.50,1,CASH,2024-09-01 10:00:00
+                        """);
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isBadRequest()
+        );
+    }
+    @Test
+    @DisplayName("Import transactions csv - Should return 400 when body is not valid csv")
+    void importTransactions_MalformedCsv_ReturnBadRequest() throws Exception {
+        //given
+        var requestBuilder = post(url+"/import/csv")
+                .contentType("text/csv")
+                .content("""
+                        seller_id,amount,payment_type,transaction_date
+                        1,10.50,CASH,2024-09-01 10:00:00,extra
+                        """);
+        //when
+        mvc.perform(requestBuilder).andExpectAll(
+                //then
+                status().isBadRequest()
+        );
+    }
     static Stream<NewTransactionPayload> invalidPayloadNewTransaction() {
         return Stream.of(
                 new NewTransactionPayload(1, BigDecimal.valueOf(-123.21),"TRANSFER"),
@@ -0,0 +1,131 @@
+package org.shiftlab.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.shiftlab.config.ApproximateAnalyticsProperties;
+import org.shiftlab.controllers.payload.Period;
+import org.shiftlab.dto.ApproximateSellerTotal;
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.services.analytics.ApproximateSellerStats;
+import org.shiftlab.services.analytics.DailyAmountsReader;
+import org.shiftlab.services.analytics.sketch.HyperLogLog;
+import org.shiftlab.services.analytics.sketch.SpaceSaving;
+import org.shiftlab.services.event.TransactionCreatedEvent;
+import org.shiftlab.store.projection.SellerDailyPaymentTypeAmount;
+import org.shiftlab.store.repos.SellerDailyStatsRepository;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ApproximateSellerStatsTest {
+    @Mock
+    private SellerDailyStatsRepository sellerDailyStatsRepository;
+    @Mock
+    private Clock clock;
+
+    private ApproximateSellerStats approximateSellerStats;
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(Instant.parse("2024-10-20T12:30:00Z"));
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        approximateSellerStats = new ApproximateSellerStats(
+                new DailyAmountsReader(sellerDailyStatsRepository), new ApproximateAnalyticsProperties(2, 10), clock);
+    }
+    @Test
+    void top_SeededAndUpdated_ReturnEstimatesWithErrorBounds() {
+        //given
+        when(sellerDailyStatsRepository.streamDailyAmountsFrom(any())).thenReturn(Stream.of(
+                row(1, LocalDate.of(2024,10,20), BigDecimal.valueOf(50)),
+                row(2, LocalDate.of(2024,10,20), BigDecimal.valueOf(10))));
+        approximateSellerStats.top(Period.DAY, 2);
+        //when
+        approximateSellerStats.onTransactionCreated(new TransactionCreatedEvent(1, 3, BigDecimal.valueOf(5),
+                PaymentType.CASH, LocalDateTime.of(2024,10,20,12,30), 1));
+        var result = approximateSellerStats.top(Period.DAY, 2);
+        //then
+        assertEquals(List.of(
+                new ApproximateSellerTotal(1, BigDecimal.valueOf(50), BigDecimal.ZERO),
+                new ApproximateSellerTotal(3, BigDecimal.valueOf(15), BigDecimal.valueOf(10))), result.sellers());
+        assertEquals(BigDecimal.valueOf(15), result.maxUntrackedTotal());
+    }
+    @Test
+    void top_TransactionInSeedSnapshot_IgnoredWhateverItsId() {
+        //given
+        when(sellerDailyStatsRepository.streamDailyAmountsFrom(any())).thenReturn(Stream.of(
+                row(1, LocalDate.of(2024,10,20), BigDecimal.valueOf(50))));
+        approximateSellerStats.top(Period.DAY, 2);
+        //when
+        approximateSellerStats.onTransactionCreated(new TransactionCreatedEvent(6, 1, BigDecimal.valueOf(50),
+                PaymentType.CASH, LocalDateTime.of(2024,10,20,12,0), 1));
+        approximateSellerStats.onTransactionCreated(new TransactionCreatedEvent(5, 1, BigDecimal.valueOf(5),
+                PaymentType.CASH, LocalDateTime.of(2024,10,20,12,30), 2));
+        var result = approximateSellerStats.top(Period.DAY, 2);
+        //then
+        assertEquals(List.of(new ApproximateSellerTotal(1, BigDecimal.valueOf(55), BigDecimal.ZERO)), result.sellers());
+    }
+    @Test
+    void activeSellers_SeededFromDatabase_ReturnEstimate() {
+        //given
+        when(sellerDailyStatsRepository.streamDailyAmountsFrom(any())).thenReturn(Stream.of(
+                row(1, LocalDate.of(2024,10,1), BigDecimal.ONE),
+                row(1, LocalDate.of(2024,10,2), BigDecimal.ONE),
+                row(2, LocalDate.of(2024,10,2), BigDecimal.ONE)));
+        //when
+        var result = approximateSellerStats.activeSellers(Period.MONTH);
+        //then
+        assertEquals(2, result.count());
+        assertEquals(1.04 / 32, result.relativeStandardError(), 1e-9);
+    }
+    @Test
+    void spaceSaving_SkewedStream_HeavyHittersWithinBounds() {
+        //given
+        var rand = new Random(3);
+        var sketch = new SpaceSaving(50);
+        Map<Integer, BigDecimal> exact = new HashMap<>();
+        //when
+        for(int i = 0; i < 100_000; i++) {
+            int seller = rand.nextInt(10) < 7 ? rand.nextInt(10) : rand.nextInt(10_000);
+            var amount = BigDecimal.valueOf(rand.nextInt(1, 100));
+            sketch.add(seller, amount);
+            exact.merge(seller, amount, BigDecimal::add);
+        }
+        //then
+        var bound = sketch.totalWeight().divide(BigDecimal.valueOf(50));
+        assertTrue(sketch.maxError().compareTo(bound) <= 0);
+        for(var counter : sketch.top(10)) {
+            var trueTotal = exact.get(counter.key());
+            assertTrue(counter.estimate().compareTo(trueTotal) >= 0);
+            assertTrue(counter.estimate().subtract(counter.error()).compareTo(trueTotal) <= 0);
+            assertTrue(counter.key() < 10);
+        }
+    }
+    @Test
+    void hyperLogLog_ManyDistinctValues_EstimateWithinThreeStandardErrors() {
+        //given
+        var sketch = new HyperLogLog(12);
+        //when
+        for(int i = 0; i < 200_000; i++) {
+            sketch.add(i % 100_000);
+        }
+        //then
+        assertEquals(100_000, sketch.estimate(), 100_000 * 3 * sketch.relativeStandardError());
+    }
+
+    static SellerDailyPaymentTypeAmount row(int sellerId, LocalDate day, BigDecimal amount) {
+        return new SellerDailyPaymentTypeAmount(sellerId, day, PaymentType.CASH, 1L, amount);
+    }
+}
@@ -0,0 +1,61 @@
+package org.shiftlab.services;
+
+import org.junit.jupiter.api.Test;
+import org.shiftlab.dto.BestPeriod;
+import org.shiftlab.dto.SellerBestPeriod;
+import org.shiftlab.services.analytics.BestPeriodBatch;
+import org.shiftlab.services.analytics.BestPeriodCalculator;
+import org.shiftlab.store.projection.SellerDailyCount;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BestPeriodBatchTest {
+
+    @Test
+    void compute_ManySellers_ReturnSameResultsAsCalculator() {
+        //given
+        var rand = new Random(5);
+        var base = LocalDate.of(2024, 1, 1);
+        List<SellerDailyCount> dailyCounts = new ArrayList<>();
+        Map<Integer, SortedMap<LocalDate, Long>> expectedInput = new HashMap<>();
+        for(int sellerId = 1; sellerId <= 500; sellerId++) {
+            var day = base;
+            for(int i = rand.nextInt(1, 50); i > 0; i--) {
+                day = day.plusDays(rand.nextInt(1, 5));
+                long count = rand.nextInt(1, 20);
+                dailyCounts.add(new SellerDailyCount(sellerId, day, count));
+                expectedInput.computeIfAbsent(sellerId, id -> new TreeMap<>()).put(day, count);
+            }
+        }
+        Map<Integer, SellerBestPeriod> results = new HashMap<>();
+        //when
+        BestPeriodBatch.compute(dailyCounts.iterator(), new ForkJoinPool(4),
+                result -> assertNull(results.put(result.sellerId(), result)));
+        //then
+        assertEquals(expectedInput.keySet(), results.keySet());
+        expectedInput.forEach((sellerId, days) ->
+                assertEquals(BestPeriodCalculator.calculate(days), results.get(sellerId).bestPeriod()));
+    }
+    @Test
+    void compute_SellerWithoutDailyCounts_ReturnEmptyBestPeriod() {
+        //given
+        List<SellerBestPeriod> results = new ArrayList<>();
+        //when
+        BestPeriodBatch.compute(List.of(new SellerDailyCount(1, null, null)).iterator(), ForkJoinPool.commonPool(), results::add);
+        //then
+        assertEquals(List.of(new SellerBestPeriod(1, new BestPeriod())), results);
+    }
+    @Test
+    void compute_NoDailyCounts_ReturnNothing() {
+        //given
+        List<SellerBestPeriod> results = new ArrayList<>();
+        //when
+        BestPeriodBatch.compute(Collections.emptyIterator(), ForkJoinPool.commonPool(), results::add);
+        //then
+        assertTrue(results.isEmpty());
+    }
+}
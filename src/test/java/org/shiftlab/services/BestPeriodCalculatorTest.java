@@ -0,0 +1,91 @@
+package org.shiftlab.services;
+
+import org.junit.jupiter.api.Test;
+import org.shiftlab.dto.BestPeriod;
+import org.shiftlab.services.analytics.BestPeriodCalculator;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BestPeriodCalculatorTest {
+
+    @Test
+    void calculate_NoTransactions_ReturnEmptyBestPeriod() {
+        //when
+        var result = BestPeriodCalculator.calculate(List.of());
+        //then
+        assertEquals(new BestPeriod(), result);
+    }
+    @Test
+    void calculate_TransactionsInOneDay_ReturnThisDay() {
+        //given
+        var day = LocalDate.of(2024, 10, 10);
+        //when
+        var result = BestPeriodCalculator.calculate(List.of(day, day, day));
+        //then
+        assertEquals(new BestPeriod(day, day, 3), result);
+    }
+    @Test
+    void calculate_RandomTransactions_ReturnSameResultAsBruteForce() {
+        //given
+        var rand = new Random(42);
+        var base = LocalDate.of(2024, 1, 1);
+        for(int iteration = 0; iteration < 5000; iteration++) {
+            int size = rand.nextInt(0, 100);
+            int days = rand.nextInt(1, List.of(5, 40, 400).get(iteration % 3) + 1);
+            List<LocalDate> dates = new ArrayList<>();
+            for(int i = 0; i < size; i++) {
+                dates.add(base.plusDays(rand.nextInt(days)));
+            }
+            //when
+            var result = BestPeriodCalculator.calculate(dates);
+            //then
+            assertEquals(bruteForce(dates), result, () -> "dates: " + dates);
+        }
+    }
+    @Test
+    void calculate_MillionTransactions_FinishesInTime() {
+        //given
+        var rand = new Random(7);
+        var base = LocalDate.of(2020, 1, 1);
+        List<LocalDate> dates = new ArrayList<>();
+        for(int i = 0; i < 1_000_000; i++) {
+            dates.add(base.plusDays(rand.nextInt(2000)));
+        }
+        //when
+        var result = assertTimeoutPreemptively(Duration.ofSeconds(2), () -> BestPeriodCalculator.calculate(dates));
+        //then
+        assertTrue(result.getCount() > 0);
+    }
+
+    BestPeriod bruteForce(List<LocalDate> transactionDates) {
+        List<LocalDate> dates = transactionDates.stream().sorted().toList();
+        double evaluation = 0;
+        BestPeriod result = new BestPeriod();
+        for(int count = 1; count <= dates.size(); count++) {
+            Long minDuration = null;
+            LocalDate answerStartPeriod = null;
+            LocalDate answerEndPeriod = null;
+            for(int i = 0; i + count - 1 < dates.size(); i++) {
+                long periodDays = ChronoUnit.DAYS.between(dates.get(i), dates.get(i + count - 1)) + 1;
+                if(minDuration == null || periodDays <= minDuration) {
+                    minDuration = periodDays;
+                    answerStartPeriod = dates.get(i);
+                    answerEndPeriod = dates.get(i + count - 1);
+                }
+            }
+            double tmpEvaluation = (double) count * count / minDuration;
+            if(tmpEvaluation > evaluation) {
+                evaluation = tmpEvaluation;
+                result = new BestPeriod(answerStartPeriod, answerEndPeriod, count);
+            }
+        }
+        return result;
+    }
+}
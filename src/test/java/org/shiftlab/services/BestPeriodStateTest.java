@@ -0,0 +1,58 @@
+package org.shiftlab.services;
+
+import org.junit.jupiter.api.Test;
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.services.analytics.BestPeriodCalculator;
+import org.shiftlab.services.analytics.BestPeriodState;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BestPeriodStateTest {
+
+    @Test
+    void applyDailyCount_RandomAppends_ReturnSameResultAsFullCalculation() {
+        //given
+        var rand = new Random(11);
+        var base = LocalDate.of(2024, 1, 1);
+        for(int iteration = 0; iteration < 2000; iteration++) {
+            var state = new BestPeriodState();
+            List<LocalDate> dates = new ArrayList<>();
+            Map<PaymentType, Long> dailyCounts = new EnumMap<>(PaymentType.class);
+            var day = base;
+            int size = rand.nextInt(1, 100);
+            for(int i = 0; i < size; i++) {
+                if(rand.nextInt(3) == 0) {
+                    day = day.plusDays(rand.nextInt(1, 10));
+                    dailyCounts.clear();
+                }
+                var paymentType = PaymentType.values()[rand.nextInt(PaymentType.values().length)];
+                long dailyCount = dailyCounts.merge(paymentType, 1L, Long::sum);
+                dates.add(day);
+                //when
+                assertTrue(state.applyDailyCount(day, paymentType, dailyCount));
+                if(rand.nextInt(5) == 0) {
+                    assertTrue(state.applyDailyCount(day, paymentType, dailyCount));
+                }
+                //then
+                assertEquals(BestPeriodCalculator.calculate(dates), state.getBestPeriod(), () -> "dates: " + dates);
+            }
+        }
+    }
+    @Test
+    void applyDailyCount_DayBeforeLastDay_ReturnFalse() {
+        //given
+        var state = new BestPeriodState();
+        state.applyDailyCount(LocalDate.of(2024, 10, 10), PaymentType.CASH, 1);
+        //when
+        var result = state.applyDailyCount(LocalDate.of(2024, 10, 9), PaymentType.CASH, 1);
+        //then
+        assertFalse(result);
+    }
+}
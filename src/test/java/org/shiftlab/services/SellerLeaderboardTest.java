@@ -0,0 +1,146 @@
+package org.shiftlab.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.shiftlab.config.LeaderboardProperties;
+import org.shiftlab.controllers.payload.Period;
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.dto.SellerTotal;
+import org.shiftlab.services.analytics.DailyAmountsReader;
+import org.shiftlab.services.analytics.SellerLeaderboard;
+import org.shiftlab.services.event.SellerDeletedEvent;
+import org.shiftlab.services.event.TransactionCreatedEvent;
+import org.shiftlab.services.event.TransactionsImportedEvent;
+import org.shiftlab.store.projection.SellerDailyPaymentTypeAmount;
+import org.shiftlab.store.repos.SellerDailyStatsRepository;
+
+import java.math.BigDecimal;
+import java.time.*;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SellerLeaderboardTest {
+    @Mock
+    private SellerDailyStatsRepository sellerDailyStatsRepository;
+    @Mock
+    private Clock clock;
+
+    private SellerLeaderboard sellerLeaderboard;
+
+    @BeforeEach
+    void setUp() {
+        setTime("2024-10-20T12:30:00Z");
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        sellerLeaderboard = new SellerLeaderboard(new DailyAmountsReader(sellerDailyStatsRepository), new LeaderboardProperties(true), clock);
+    }
+    @Test
+    void top_SeededFromDatabase_ReturnSellersOrderedByTotal() {
+        //given
+        when(sellerDailyStatsRepository.streamDailyAmountsFrom(any())).thenReturn(Stream.of(
+                row(1, LocalDate.of(2024,10,20), BigDecimal.valueOf(10)),
+                row(2, LocalDate.of(2024,10,19), BigDecimal.valueOf(30)),
+                row(3, LocalDate.of(2024,9,1), BigDecimal.valueOf(100))));
+        sellerLeaderboard.seedOnStartup();
+        //when
+        var day = sellerLeaderboard.top(Period.DAY, 10);
+        var year = sellerLeaderboard.top(Period.YEAR, 2);
+        //then
+        assertEquals(List.of(
+                new SellerTotal(2, BigDecimal.valueOf(30)),
+                new SellerTotal(1, BigDecimal.valueOf(10))), day);
+        assertEquals(List.of(
+                new SellerTotal(3, BigDecimal.valueOf(100)),
+                new SellerTotal(2, BigDecimal.valueOf(30))), year);
+    }
+    @Test
+    void onTransactionCreated_Seeded_UpdateAllPeriods() {
+        //given
+        when(sellerDailyStatsRepository.streamDailyAmountsFrom(any())).thenReturn(Stream.of(
+                row(1, LocalDate.of(2024,10,20), BigDecimal.valueOf(10))));
+        sellerLeaderboard.seed();
+        //when
+        sellerLeaderboard.onTransactionCreated(new TransactionCreatedEvent(1, 2, BigDecimal.valueOf(15),
+                PaymentType.CASH, LocalDateTime.of(2024,10,20,12,30), 1));
+        //then
+        for(Period period : Period.values()) {
+            assertEquals(new SellerTotal(2, BigDecimal.valueOf(15)), sellerLeaderboard.top(period, 1).get(0));
+        }
+    }
+    @Test
+    void onTransactionCreated_TransactionInSeedSnapshot_IgnoredWhateverItsId() {
+        //given
+        when(sellerDailyStatsRepository.streamDailyAmountsFrom(any())).thenReturn(Stream.of(
+                row(2, LocalDate.of(2024,10,20), BigDecimal.valueOf(15))));
+        sellerLeaderboard.seed();
+        //when
+        sellerLeaderboard.onTransactionCreated(new TransactionCreatedEvent(6, 2, BigDecimal.valueOf(15),
+                PaymentType.CASH, LocalDateTime.of(2024,10,20,12,30), 1));
+        sellerLeaderboard.onTransactionCreated(new TransactionCreatedEvent(5, 2, BigDecimal.valueOf(10),
+                PaymentType.CASH, LocalDateTime.of(2024,10,20,12,35), 2));
+        //then
+        assertEquals(List.of(new SellerTotal(2, BigDecimal.valueOf(25))), sellerLeaderboard.top(Period.DAY, 10));
+    }
+    @Test
+    void top_PeriodRolledOver_DropOldDays() {
+        //given
+        when(sellerDailyStatsRepository.streamDailyAmountsFrom(any())).thenReturn(Stream.of(
+                row(1, LocalDate.of(2024,10,20), BigDecimal.valueOf(10))));
+        sellerLeaderboard.seed();
+        //when
+        setTime("2024-11-05T08:00:00Z");
+        //then
+        assertTrue(sellerLeaderboard.top(Period.DAY, 10).isEmpty());
+        assertTrue(sellerLeaderboard.top(Period.MONTH, 10).isEmpty());
+        assertEquals(List.of(new SellerTotal(1, BigDecimal.valueOf(10))), sellerLeaderboard.top(Period.QUARTER, 10));
+    }
+    @Test
+    void onSellerDeleted_SellerRanked_RemoveSeller() {
+        //given
+        when(sellerDailyStatsRepository.streamDailyAmountsFrom(any())).thenReturn(Stream.of(
+                row(1, LocalDate.of(2024,10,20), BigDecimal.valueOf(10)),
+                row(2, LocalDate.of(2024,10,20), BigDecimal.valueOf(5))));
+        sellerLeaderboard.seed();
+        //when
+        sellerLeaderboard.onSellerDeleted(new SellerDeletedEvent(1));
+        //then
+        assertEquals(List.of(new SellerTotal(2, BigDecimal.valueOf(5))), sellerLeaderboard.top(Period.YEAR, 10));
+    }
+    @Test
+    void onTransactionCreated_NotSeeded_Ignored() {
+        //when
+        sellerLeaderboard.onTransactionCreated(new TransactionCreatedEvent(1, 2, BigDecimal.valueOf(15),
+                PaymentType.CASH, LocalDateTime.of(2024,10,20,12,30), 1));
+        when(sellerDailyStatsRepository.streamDailyAmountsFrom(any())).thenReturn(Stream.of());
+        //then
+        assertTrue(sellerLeaderboard.top(Period.DAY, 10).isEmpty());
+    }
+    @Test
+    void onTransactionsImported_Seeded_ReseedOnNextRead() {
+        //given
+        when(sellerDailyStatsRepository.streamDailyAmountsFrom(any())).thenReturn(
+                Stream.of(row(1, LocalDate.of(2024,10,20), BigDecimal.valueOf(10))),
+                Stream.of(row(1, LocalDate.of(2024,10,20), BigDecimal.valueOf(10)),
+                        row(2, LocalDate.of(2024,10,20), BigDecimal.valueOf(50))));
+        sellerLeaderboard.seed();
+        //when
+        sellerLeaderboard.onTransactionsImported(new TransactionsImportedEvent(1));
+        //then
+        assertEquals(new SellerTotal(2, BigDecimal.valueOf(50)), sellerLeaderboard.top(Period.DAY, 1).get(0));
+    }
+
+    static SellerDailyPaymentTypeAmount row(int sellerId, LocalDate day, BigDecimal amount) {
+        return new SellerDailyPaymentTypeAmount(sellerId, day, PaymentType.CASH, 1L, amount);
+    }
+
+    void setTime(String instant) {
+        when(clock.instant()).thenReturn(Instant.parse(instant));
+    }
+}
@@ -0,0 +1,70 @@
+package org.shiftlab.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.shiftlab.services.registry.SellerRegistry;
+import org.shiftlab.store.repos.SellerRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SellerRegistryTest {
+    @Mock
+    private SellerRepository sellerRepository;
+
+    private SellerRegistry sellerRegistry;
+
+    @BeforeEach
+    void setUp() {
+        sellerRegistry = new SellerRegistry(sellerRepository);
+        when(sellerRepository.findAllIds()).thenReturn(List.of(1, 2));
+    }
+    @Test
+    void exists_KnownSeller_NoQuery() {
+        //when
+        var first = sellerRegistry.exists(1);
+        var second = sellerRegistry.exists(2);
+        //then
+        assertTrue(first);
+        assertTrue(second);
+        verify(sellerRepository, times(1)).findAllIds();
+        verify(sellerRepository, never()).existsById(anyInt());
+    }
+    @Test
+    void exists_SellerCreatedElsewhere_CheckDatabaseOnce() {
+        //given
+        when(sellerRepository.existsById(3)).thenReturn(true);
+        //when
+        sellerRegistry.exists(3);
+        var result = sellerRegistry.exists(3);
+        //then
+        assertTrue(result);
+        verify(sellerRepository, times(1)).existsById(3);
+    }
+    @Test
+    void exists_SellerRemoved_ReturnFalse() {
+        //given
+        when(sellerRepository.existsById(1)).thenReturn(false);
+        sellerRegistry.exists(1);
+        //when
+        sellerRegistry.remove(1);
+        //then
+        assertFalse(sellerRegistry.exists(1));
+    }
+    @Test
+    void findExisting_SomeSellersUnknown_QueryOnlyUnknown() {
+        //given
+        when(sellerRepository.findExistingIds(Set.of(3, 4))).thenReturn(Set.of(3));
+        //when
+        var result = sellerRegistry.findExisting(List.of(1, 3, 4));
+        //then
+        assertEquals(Set.of(1, 3), result);
+    }
+}
@@ -0,0 +1,147 @@
+package org.shiftlab.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.shiftlab.Main;
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.store.entity.SellerEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Main.class, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=fail"
+})
+public class SellerServiceCacheTestIT {
+    @Autowired
+    private SellerService sellerService;
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from sales_management.seller");
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @Test
+    @DisplayName("Find seller by id - Should not query the database when seller is cached")
+    void findSellerById_SellerCached_NoStatements() {
+        //given
+        int id = sellerService.createSeller("Alberto Mayert", "878-999-0161").getId();
+        var first = sellerService.findSellerById(id);
+        long statements = statistics.getPrepareStatementCount();
+        //when
+        var second = sellerService.findSellerById(id);
+        var version = sellerService.findSellerVersion(id);
+        //then
+        assertEquals(first, second);
+        assertEquals(Optional.of(0L), version);
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics(SellerEntity.CACHE_REGION).getHitCount() >= 2);
+    }
+
+    @Test
+    @DisplayName("Update seller - Should return new values from cache after update")
+    void updateSeller_SellerCached_ReturnUpdatedSeller() {
+        //given
+        int id = sellerService.createSeller("Alberto Mayert", "878-999-0161").getId();
+        sellerService.findSellerById(id);
+        //when
+        sellerService.updateSeller(id, "Elmer Runte", null);
+        //then
+        var seller = sellerService.findSellerById(id).orElseThrow();
+        assertEquals("Elmer Runte", seller.getName());
+        assertEquals("878-999-0161", seller.getContactInfo());
+        assertEquals(Optional.of(1L), sellerService.findSellerVersion(id));
+    }
+
+    @Test
+    @DisplayName("Delete seller - Should evict seller from cache")
+    void deleteSellerById_SellerCached_Evicted() {
+        //given
+        int id = sellerService.createSeller("Alberto Mayert", "878-999-0161").getId();
+        sellerService.findSellerById(id);
+        //when
+        sellerService.deleteSellerById(id);
+        //then
+        assertFalse(entityManagerFactory.getCache().contains(SellerEntity.class, id));
+        assertTrue(sellerService.findSellerById(id).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Find all sellers - Should read repeated query from cache until sellers change")
+    void findAllSellers_CalledAgain_ReadFromQueryCacheUntilSellerCreated() {
+        //given
+        sellerService.createSeller("Alberto Mayert", "878-999-0161");
+        sellerService.findAllSellers();
+        long statements = statistics.getPrepareStatementCount();
+        //when
+        var cached = sellerService.findAllSellers();
+        long statementsAfterCachedRead = statistics.getPrepareStatementCount();
+        sellerService.createSeller("Elmer Runte", "645-423-7550");
+        var reloaded = sellerService.findAllSellers();
+        //then
+        assertEquals(statements, statementsAfterCachedRead);
+        assertEquals(1, cached.size());
+        assertEquals(2, reloaded.size());
+    }
+
+    @Test
+    @DisplayName("Create transaction - Should keep cached sellers and seller queries")
+    void createTransaction_SellerCached_CacheNotInvalidated() {
+        //given
+        int id = sellerService.createSeller("Alberto Mayert", "878-999-0161").getId();
+        sellerService.findSellerById(id);
+        sellerService.findAllSellers();
+        //when
+        transactionService.createTransaction(id, BigDecimal.TEN, PaymentType.CARD);
+        long statements = statistics.getPrepareStatementCount();
+        var seller = sellerService.findSellerById(id);
+        var sellers = sellerService.findAllSellers();
+        //then
+        assertTrue(seller.isPresent());
+        assertEquals(1, sellers.size());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Metrics - Should expose second-level cache hit ratios")
+    void metrics_CacheEnabled_ExposeHitRatios() {
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.hit.ratio").tag("region", SellerEntity.CACHE_REGION).gauge());
+        assertNotNull(meterRegistry.find("hibernate.cache.query.hit.ratio").gauge());
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests").tag("region", SellerEntity.CACHE_REGION).functionCounter());
+    }
+}
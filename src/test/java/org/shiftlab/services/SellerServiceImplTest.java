@@ -1,30 +1,51 @@
 package org.shiftlab.services;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.shiftlab.config.BestPeriodCacheProperties;
+import org.shiftlab.controllers.payload.Granularity;
+import org.shiftlab.dto.BestPeriod;
 import org.shiftlab.dto.PaymentType;
 import org.shiftlab.dto.SellerDto;
+import org.shiftlab.dto.SeriesBucket;
 import org.shiftlab.exceptions.SellerNotFoundException;
+import org.shiftlab.services.analytics.ApproximateSellerStats;
+import org.shiftlab.services.analytics.BestPeriodCache;
+import org.shiftlab.services.analytics.SellerLeaderboard;
+import org.shiftlab.services.event.SellerDeletedEvent;
+import org.shiftlab.services.event.TransactionCreatedEvent;
 import org.shiftlab.services.impl.SellerServiceImpl;
 import org.shiftlab.services.mapper.EntityDtoMapper;
+import org.shiftlab.services.registry.SellerRegistry;
+import org.shiftlab.store.entity.SellerDailyStatsEntity;
 import org.shiftlab.store.entity.SellerEntity;
-import org.shiftlab.store.entity.TransactionEntity;
+import org.shiftlab.store.projection.DailyTotals;
+import org.shiftlab.store.repos.SellerDailyStatsRepository;
+import org.shiftlab.store.repos.SellerHourlyStatsRepository;
 import org.shiftlab.store.repos.SellerRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,26 +54,33 @@ public class SellerServiceImplTest {
     @Mock
     private SellerRepository sellerRepository;
     @Mock
+    private SellerRegistry sellerRegistry;
+    @Mock
+    private SellerDailyStatsRepository sellerDailyStatsRepository;
+    @Mock
+    private SellerHourlyStatsRepository sellerHourlyStatsRepository;
+    @Mock
+    private SellerLeaderboard sellerLeaderboard;
+    @Mock
+    private ApproximateSellerStats approximateSellerStats;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+    @Mock
     private Clock clock;
     @InjectMocks
     private SellerServiceImpl sellerService;
+    private BestPeriodCache bestPeriodCache;
 
     @BeforeEach
     void setUp(){
         clock = Clock.systemUTC();
         EntityDtoMapper entityDtoMapper = new EntityDtoMapper();
-        sellerService=new SellerServiceImpl(sellerRepository,entityDtoMapper,clock);
+        bestPeriodCache = new BestPeriodCache(new BestPeriodCacheProperties(100, Duration.ofMinutes(1)), new SimpleMeterRegistry());
+        sellerService=new SellerServiceImpl(sellerRepository,sellerRegistry,sellerDailyStatsRepository,sellerHourlyStatsRepository,sellerLeaderboard,approximateSellerStats,bestPeriodCache,entityDtoMapper,applicationEventPublisher,clock);
     }
     @Test
     void findAllSellers_SellersExist_ReturnListSellerDto() {
         //given
-        var sellers = IntStream.range(1, 4)
-                .mapToObj(i -> SellerEntity
-                        .builder()
-                        .id(i)
-                        .name(String.format("Seller: %d",i))
-                        .build())
-                .toList();
         var sellersDto = IntStream.range(1, 4)
                 .mapToObj(i -> SellerDto
                         .builder()
@@ -60,7 +88,7 @@ public class SellerServiceImplTest {
                         .name(String.format("Seller: %d",i))
                         .build())
                 .toList();
-        when(sellerRepository.findAll()).thenReturn(sellers);
+        when(sellerRepository.findAllDtos()).thenReturn(sellersDto);
 
         //when
         var result = sellerService.findAllSellers();
@@ -70,13 +98,50 @@ public class SellerServiceImplTest {
     @Test
     void findAllSellers_SellersNotExist_ReturnEmptyListSellerDto() {
         //given
-        when(sellerRepository.findAll()).thenReturn(List.of());
+        when(sellerRepository.findAllDtos()).thenReturn(List.of());
         //when
         var result = sellerService.findAllSellers();
         //then
         assertTrue(result.isEmpty());
     }
     @Test
+    void findSellersAfter_FullPage_ReturnsNextCursor() {
+        //given
+        var sellers = IntStream.range(3, 6)
+                .mapToObj(i -> SellerDto.builder().id(i).build())
+                .toList();
+        when(sellerRepository.findDtosAfter(2, PageRequest.ofSize(3))).thenReturn(sellers);
+        //when
+        var result = sellerService.findSellersAfter(2, 2);
+        //then
+        assertEquals(List.of(3, 4), result.items().stream().map(SellerDto::getId).toList());
+        assertEquals(4, result.next());
+    }
+    @Test
+    void findSellersAfter_LastPage_ReturnsNoCursor() {
+        //given
+        when(sellerRepository.findDtosAfter(4, PageRequest.ofSize(3)))
+                .thenReturn(List.of(SellerDto.builder().id(5).build()));
+        //when
+        var result = sellerService.findSellersAfter(4, 2);
+        //then
+        assertEquals(1, result.items().size());
+        assertNull(result.next());
+    }
+    @Test
+    void findSellersAfter_ExactlyFullLastPage_ReturnsNoCursor() {
+        //given
+        var sellers = IntStream.range(5, 7)
+                .mapToObj(i -> SellerDto.builder().id(i).build())
+                .toList();
+        when(sellerRepository.findDtosAfter(4, PageRequest.ofSize(3))).thenReturn(sellers);
+        //when
+        var result = sellerService.findSellersAfter(4, 2);
+        //then
+        assertEquals(List.of(5, 6), result.items().stream().map(SellerDto::getId).toList());
+        assertNull(result.next());
+    }
+    @Test
     void createSeller__ReturnsSellerDto() {
         //given
         when(sellerRepository.save(SellerEntity.builder()
@@ -99,15 +164,28 @@ public class SellerServiceImplTest {
         var result = sellerService.createSeller("Alexander M", "123-123-123");
         //then
         assertEquals(dto, result);
+        verify(sellerRegistry).add(1);
 
     }
     @Test
     void findSellerById_SellersExist_ReturnNotEmptyOptionalSellerDto() {
         //given
+        var dto = new SellerDto(1, "Alexander M", "123-123-123", null);
         when(sellerRepository.findById(1)).thenReturn(Optional.of(getAnySellerEntity()));
         //when
         var result = sellerService.findSellerById(1);
         //then
+        assertEquals(Optional.of(dto), result);
+        verify(sellerRepository, never()).findWithTransactionsById(1);
+
+    }
+    @Test
+    void findSellerWithTransactionsById_SellersExist_ReturnSellerDtoWithTransactions() {
+        //given
+        when(sellerRepository.findWithTransactionsById(1)).thenReturn(Optional.of(getAnySellerEntity()));
+        //when
+        var result = sellerService.findSellerWithTransactionsById(1);
+        //then
         var dto = SellerDto.builder()
                 .id(1)
                 .name("Alexander M")
@@ -115,7 +193,6 @@ public class SellerServiceImplTest {
                 .transactions(List.of())
                 .build();
         assertEquals(Optional.of(dto), result);
-
     }
     @Test
     void findSellerById_SellersNotExist_ReturnEmptyOptionalSellerDto() {
@@ -159,69 +236,67 @@ public class SellerServiceImplTest {
                         .transactions(List.of())
                         .build())
                 .toList();
-        when(sellerRepository.findAllSellersJoinTransactions()).thenReturn(sellers);
+        var timeFrom = LocalDateTime.now().minusMonths(1);
+        var timeTo = LocalDateTime.now();
+        when(sellerRepository.findAllSellersWithTransactionsSumLessThan(BigDecimal.valueOf(15.5), timeFrom.toLocalDate(), timeTo.toLocalDate()))
+                .thenReturn(sellers);
 
         //when
-        var result = sellerService.findSellersFilteredByDateAndSumma(BigDecimal.valueOf(15.5),
-                LocalDateTime.now().minusMonths(1),
-                LocalDateTime.now());
+        var result = sellerService.findSellersFilteredByDateAndSumma(BigDecimal.valueOf(15.5), timeFrom, timeTo);
         //then
         assertTrue(result.size()==sellers.size());
     }
     @Test
     void findMostProductiveSellerByDate_SellerExist_ReturnNotEmptyOptionalSellerDto() {
         //given
-        var sellers = IntStream.range(1, 4)
-                .mapToObj(i -> SellerEntity
-                        .builder()
-                        .id(i)
-                        .name(String.format("Seller: %d",i))
-                        .build())
-                .toList();
-        BigDecimal max =  BigDecimal.valueOf(0);
-        int id = 0;
-        for(var seller : sellers) {
-            var transactions = getTransactionEntityList(seller);
-            seller.setTransactions(transactions);
-            var summa = BigDecimal.valueOf(0);
-            for(var transaction : transactions) {
-                summa=summa.add(transaction.getAmount());
-            }
-            if(max.compareTo(summa) < 0) {
-                id = seller.getId();
-                max = summa;
-            }
-
-        }
-        when(sellerRepository.findAllSellersJoinTransactions()).thenReturn(sellers);
+        var timeFrom = LocalDateTime.of(2021,10,10,10,10);
+        var timeTo = LocalDateTime.of(2024,12,31,10,10);
+        when(sellerRepository.findMostProductiveSellers(timeFrom.toLocalDate(), timeTo.toLocalDate(), 1)).thenReturn(List.of(getAnySellerEntity()));
         //when
-        var result = sellerService.findMostProductiveSellerByDate(
-                LocalDateTime.of(2021,10,10,10,10),
-                LocalDateTime.of(2024,12,31,10,10));
+        var result = sellerService.findMostProductiveSellerByDate(timeFrom, timeTo);
 
         //then
         assertTrue(result.isPresent());
-        assertEquals(id, result.get().getId());
+        assertEquals(1, result.get().getId());
 
     }
     @Test
     void findMostProductiveSellerByDate_SellerNotExist_ReturnEmptyOptionalSellerDto() {
         //given
-
-        when(sellerRepository.findAllSellersJoinTransactions()).thenReturn(List.of());
+        var timeFrom = LocalDateTime.now().minusMonths(1);
+        var timeTo = LocalDateTime.now();
+        when(sellerRepository.findMostProductiveSellers(timeFrom.toLocalDate(), timeTo.toLocalDate(), 1)).thenReturn(List.of());
         //when
-        var result = sellerService.findMostProductiveSellerByDate(LocalDateTime.now().minusMonths(1),
-                LocalDateTime.now());
+        var result = sellerService.findMostProductiveSellerByDate(timeFrom, timeTo);
         //then
         assertTrue(result.isEmpty());
 
+    }
+    @Test
+    void findMostProductiveSellersByDate_SellersExist_ReturnSellersInRepositoryOrder() {
+        //given
+        var timeFrom = LocalDateTime.now().minusMonths(1);
+        var timeTo = LocalDateTime.now();
+        var sellers = IntStream.of(3, 1, 2)
+                .mapToObj(i -> SellerEntity
+                        .builder()
+                        .id(i)
+                        .name(String.format("Seller: %d",i))
+                        .build())
+                .toList();
+        when(sellerRepository.findMostProductiveSellers(timeFrom.toLocalDate(), timeTo.toLocalDate(), 3)).thenReturn(sellers);
+        //when
+        var result = sellerService.findMostProductiveSellersByDate(timeFrom, timeTo, 3);
+        //then
+        assertEquals(List.of(3, 1, 2), result.stream().map(SellerDto::getId).toList());
+
     }
 
     @Test
     void deleteById_SellerNotExists_ReturnSellerNotFoundException() {
 
         //given
-        when(sellerRepository.existsById(1)).thenReturn(false);
+        when(sellerRepository.findById(1)).thenReturn(Optional.empty());
         //then
         assertThrows(SellerNotFoundException.class,()->sellerService.deleteSellerById(1));
     }
@@ -229,17 +304,25 @@ public class SellerServiceImplTest {
     void deleteById_SellerExists_ReturnNothing() {
 
         //given
-        when(sellerRepository.existsById(1)).thenReturn(true);
-        //then
+        var entity = getAnySellerEntity();
+        when(sellerRepository.findById(1)).thenReturn(Optional.of(entity));
+        //when
         sellerService.deleteSellerById(1);
+        //then
+        verify(sellerRepository).delete(entity);
+        verify(applicationEventPublisher).publishEvent(new SellerDeletedEvent(1));
+        verify(sellerRegistry).remove(1);
 
     }
     @Test
     void findBestPeriodOfSeller_SellerExist_ReturnBestPeriod() {
         //given
-        var seller = getAnySellerEntity();
-        seller.setTransactions(getTransactionEntityList(seller));
-        when(sellerRepository.findById(1)).thenReturn(Optional.of(seller));
+        when(sellerRepository.existsById(1)).thenReturn(true);
+        when(sellerDailyStatsRepository.findAllBySellerIdOrderByTransactionDay(1)).thenReturn(List.of(
+                getDailyStats(LocalDate.of(2024,10,10), PaymentType.CASH, 3),
+                getDailyStats(LocalDate.of(2024,10,11), PaymentType.CASH, 1),
+                getDailyStats(LocalDate.of(2024,10,11), PaymentType.CARD, 3),
+                getDailyStats(LocalDate.of(2024,10,20), PaymentType.TRANSFER, 1)));
 
         //when
 
@@ -247,9 +330,111 @@ public class SellerServiceImplTest {
 
         //then
 
-        assertEquals(result.getCount(),seller.getTransactions().size());
+        assertEquals(new BestPeriod(LocalDate.of(2024,10,10), LocalDate.of(2024,10,11), 7), result);
+    }
+    @Test
+    void findBestPeriodOfSeller_CalledTwice_LoadFromRepositoryOnce() {
+        //given
+        when(sellerRepository.existsById(1)).thenReturn(true);
+        when(sellerDailyStatsRepository.findAllBySellerIdOrderByTransactionDay(1)).thenReturn(List.of(
+                getDailyStats(LocalDate.of(2024,10,10), PaymentType.CASH, 3)));
+        //when
+        var first = sellerService.findBestPeriodOfSeller(1);
+        var second = sellerService.findBestPeriodOfSeller(1);
+        //then
+        assertEquals(first, second);
+        verify(sellerDailyStatsRepository, times(1)).findAllBySellerIdOrderByTransactionDay(1);
+    }
+    @Test
+    void findBestPeriodOfSeller_TransactionCreated_UpdateWithoutReload() {
+        //given
+        when(sellerRepository.existsById(1)).thenReturn(true);
+        when(sellerDailyStatsRepository.findAllBySellerIdOrderByTransactionDay(1)).thenReturn(List.of(
+                getDailyStats(LocalDate.of(2024,10,10), PaymentType.CASH, 3)));
+        sellerService.findBestPeriodOfSeller(1);
+        //when
+        bestPeriodCache.onTransactionCreated(new TransactionCreatedEvent(4, 1, BigDecimal.ONE,
+                PaymentType.CASH, LocalDateTime.of(2024,10,10,12,0), 4));
+        var result = sellerService.findBestPeriodOfSeller(1);
+        //then
+        assertEquals(4, result.getCount());
+        verify(sellerDailyStatsRepository, times(1)).findAllBySellerIdOrderByTransactionDay(1);
+    }
+    @Test
+    void findBestPeriodOfSeller_TransactionCreatedOutOfOrder_Reload() {
+        //given
+        when(sellerRepository.existsById(1)).thenReturn(true);
+        when(sellerDailyStatsRepository.findAllBySellerIdOrderByTransactionDay(1)).thenReturn(List.of(
+                getDailyStats(LocalDate.of(2024,10,10), PaymentType.CASH, 3)));
+        sellerService.findBestPeriodOfSeller(1);
+        //when
+        bestPeriodCache.onTransactionCreated(new TransactionCreatedEvent(4, 1, BigDecimal.ONE,
+                PaymentType.CASH, LocalDateTime.of(2024,10,9,12,0), 1));
+        sellerService.findBestPeriodOfSeller(1);
+        //then
+        verify(sellerDailyStatsRepository, times(2)).findAllBySellerIdOrderByTransactionDay(1);
+    }
+    @Test
+    void findBestPeriodOfSeller_SellerNotExist_ReturnSellerNotFoundException() {
+        //given
+        when(sellerRepository.existsById(1)).thenReturn(false);
+        //then
+        assertThrows(SellerNotFoundException.class, ()->sellerService.findBestPeriodOfSeller(1));
+    }
+    @Test
+    void checkSellersExist_SomeSellersNotExist_ReturnSellerNotFoundException() {
+        //given
+        when(sellerRepository.findExistingIds(List.of(1, 2, 3))).thenReturn(Set.of(1, 3));
+        //when
+        var exception = assertThrows(SellerNotFoundException.class, ()->sellerService.checkSellersExist(List.of(1, 2, 3)));
+        //then
+        assertEquals(2, exception.getId());
+    }
+    @Test
+    void findSellerSeries_GranularityIsWeek_MergeDaysIntoWeeks() {
+        //given
+        when(sellerRepository.existsById(1)).thenReturn(true);
+        when(sellerDailyStatsRepository.findDailyTotals(1, LocalDate.of(2024,10,1), LocalDate.of(2024,10,31))).thenReturn(List.of(
+                new DailyTotals(LocalDate.of(2024,10,7), 2L, BigDecimal.valueOf(20)),
+                new DailyTotals(LocalDate.of(2024,10,13), 1L, BigDecimal.valueOf(5)),
+                new DailyTotals(LocalDate.of(2024,10,14), 3L, BigDecimal.valueOf(30))));
+        //when
+        var result = sellerService.findSellerSeries(1, Granularity.WEEK, LocalDate.of(2024,10,1), LocalDate.of(2024,10,31));
+        //then
+        assertEquals(List.of(
+                new SeriesBucket(LocalDateTime.of(2024,10,7,0,0), 3, BigDecimal.valueOf(25)),
+                new SeriesBucket(LocalDateTime.of(2024,10,14,0,0), 3, BigDecimal.valueOf(30))), result);
+    }
+    @Test
+    void findSellerSeries_FromIsMidWeek_FirstWeekStartsAtFrom() {
+        //given
+        when(sellerRepository.existsById(1)).thenReturn(true);
+        when(sellerDailyStatsRepository.findDailyTotals(1, LocalDate.of(2024,10,1), LocalDate.of(2024,10,31))).thenReturn(List.of(
+                new DailyTotals(LocalDate.of(2024,10,2), 1L, BigDecimal.valueOf(10)),
+                new DailyTotals(LocalDate.of(2024,10,3), 1L, BigDecimal.valueOf(5))));
+        //when
+        var result = sellerService.findSellerSeries(1, Granularity.WEEK, LocalDate.of(2024,10,1), LocalDate.of(2024,10,31));
+        //then
+        assertEquals(List.of(new SeriesBucket(LocalDateTime.of(2024,10,1,0,0), 2, BigDecimal.valueOf(15))), result);
+    }
+    @Test
+    void findSellerSeries_SellerNotExist_ReturnSellerNotFoundException() {
+        //given
+        when(sellerRepository.existsById(1)).thenReturn(false);
+        //then
+        assertThrows(SellerNotFoundException.class,
+                ()->sellerService.findSellerSeries(1, Granularity.DAY, LocalDate.of(2024,10,1), LocalDate.of(2024,10,31)));
     }
 
+    SellerDailyStatsEntity getDailyStats(LocalDate day, PaymentType paymentType, long count) {
+        return SellerDailyStatsEntity.builder()
+                .sellerId(1)
+                .transactionDay(day)
+                .paymentType(paymentType)
+                .transactionCount(count)
+                .amountSum(BigDecimal.TEN)
+                .build();
+    }
     SellerEntity getAnySellerEntity() {
         return SellerEntity.builder()
                 .id(1)
@@ -258,17 +443,5 @@ public class SellerServiceImplTest {
                 .transactions(List.of())
                 .build();
     }
-    List<TransactionEntity> getTransactionEntityList(SellerEntity sellerEntity) {
-        var rand = new Random();
-        return IntStream.range(1,rand.nextInt(1,4))
-                .mapToObj(i -> TransactionEntity
-                        .builder()
-                        .id(i)
-                        .amount(BigDecimal.valueOf(rand.nextDouble(10,500)))
-                        .registrationDate(LocalDateTime.of(2024,10,10,12,0))
-                        .seller(sellerEntity)
-                        .paymentType(PaymentType.TRANSFER)
-                        .build()).toList();
-    }
 
 }
@@ -0,0 +1,75 @@
+package org.shiftlab.services;
+
+import org.junit.jupiter.api.Test;
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.services.etag.TableChangeTokens;
+import org.shiftlab.services.event.SellerDeletedEvent;
+import org.shiftlab.services.event.SellerSavedEvent;
+import org.shiftlab.services.event.TransactionCreatedEvent;
+import org.shiftlab.services.event.TransactionsImportedEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class TableChangeTokensTest {
+
+    @Test
+    void onSellerSaved_ChangesOnlySellersToken() {
+        //given
+        var tokens = new TableChangeTokens();
+        var sellers = tokens.sellers();
+        var transactions = tokens.transactions();
+        //when
+        tokens.onSellerSaved(new SellerSavedEvent(1));
+        //then
+        assertNotEquals(sellers, tokens.sellers());
+        assertEquals(transactions, tokens.transactions());
+    }
+
+    @Test
+    void onSellerDeleted_ChangesBothTokens() {
+        //given
+        var tokens = new TableChangeTokens();
+        var sellers = tokens.sellers();
+        var transactions = tokens.transactions();
+        //when
+        tokens.onSellerDeleted(new SellerDeletedEvent(1));
+        //then
+        assertNotEquals(sellers, tokens.sellers());
+        assertNotEquals(transactions, tokens.transactions());
+    }
+
+    @Test
+    void onTransactionCreated_ChangesOnlyTransactionsToken() {
+        //given
+        var tokens = new TableChangeTokens();
+        var sellers = tokens.sellers();
+        var transactions = tokens.transactions();
+        //when
+        tokens.onTransactionCreated(new TransactionCreatedEvent(1, 1, BigDecimal.TEN, PaymentType.CASH, LocalDateTime.now(), 1));
+        //then
+        assertEquals(sellers, tokens.sellers());
+        assertNotEquals(transactions, tokens.transactions());
+    }
+
+    @Test
+    void onTransactionsImported_ChangesOnlyTransactionsToken() {
+        //given
+        var tokens = new TableChangeTokens();
+        var sellers = tokens.sellers();
+        var transactions = tokens.transactions();
+        //when
+        tokens.onTransactionsImported(new TransactionsImportedEvent(10));
+        //then
+        assertEquals(sellers, tokens.sellers());
+        assertNotEquals(transactions, tokens.transactions());
+    }
+
+    @Test
+    void tokens_NewInstance_DifferFromPreviousRun() {
+        assertNotEquals(new TableChangeTokens().sellers(), new TableChangeTokens().sellers());
+    }
+}
@@ -0,0 +1,85 @@
+package org.shiftlab.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.shiftlab.config.TransactionBatchProperties;
+import org.shiftlab.dto.TransactionBatchError;
+import org.shiftlab.services.event.TransactionsImportedEvent;
+import org.shiftlab.services.ingest.TransactionCsvImporter;
+import org.shiftlab.store.repos.TransactionCopyRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionCsvImporterTest {
+    @Mock
+    private TransactionCopyRepository transactionCopyRepository;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private TransactionCsvImporter transactionCsvImporter;
+
+    @BeforeEach
+    void setUp() {
+        transactionCsvImporter = new TransactionCsvImporter(transactionCopyRepository,
+                new TransactionBatchProperties(10000, 500, 1000, 2), applicationEventPublisher);
+    }
+    @Test
+    void importCsv_RowsRejected_MoveValidRowsAndReportFirstErrors() {
+        //given
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        when(transactionCopyRepository.moveValidImportRows()).thenReturn(5L);
+        when(transactionCopyRepository.countRejectedImportRows()).thenReturn(3L);
+        var errors = List.of(new TransactionBatchError(2, "Invalid amount"), new TransactionBatchError(4, "Seller not found"));
+        when(transactionCopyRepository.findRejectedImportRows(2)).thenReturn(errors);
+        //when
+        var result = transactionCsvImporter.importCsv(body);
+        //then
+        var order = inOrder(transactionCopyRepository);
+        order.verify(transactionCopyRepository).createImportTable();
+        order.verify(transactionCopyRepository).copyInCsv(body);
+        order.verify(transactionCopyRepository).rejectInvalidImportRows();
+        order.verify(transactionCopyRepository).moveValidImportRows();
+        assertEquals(5, result.accepted());
+        assertEquals(3, result.rejected());
+        assertEquals(errors, result.errors());
+        verify(applicationEventPublisher).publishEvent(new TransactionsImportedEvent(5));
+    }
+    @Test
+    void importCsv_NothingAccepted_NoEventPublished() {
+        //given
+        when(transactionCopyRepository.moveValidImportRows()).thenReturn(0L);
+        when(transactionCopyRepository.countRejectedImportRows()).thenReturn(0L);
+        //when
+        var result = transactionCsvImporter.importCsv(new ByteArrayInputStream(new byte[0]));
+        //then
+        assertEquals(0, result.accepted());
+        assertTrue(result.errors().isEmpty());
+        verify(transactionCopyRepository, never()).findRejectedImportRows(anyInt());
+        verifyNoInteractions(applicationEventPublisher);
+    }
+    @Test
+    void importCsv_MalformedCsv_ThrowBadRequest() {
+        //given
+        when(transactionCopyRepository.copyInCsv(any())).thenThrow(new DataIntegrityViolationException("extra data after last expected column"));
+        //when
+        var exception = assertThrows(ResponseStatusException.class,
+                () -> transactionCsvImporter.importCsv(new ByteArrayInputStream(new byte[0])));
+        //then
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(transactionCopyRepository, never()).moveValidImportRows();
+    }
+}
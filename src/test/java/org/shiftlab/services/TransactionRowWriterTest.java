@@ -0,0 +1,101 @@
+package org.shiftlab.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.shiftlab.config.TransactionBatchProperties;
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.services.event.TransactionCreatedEvent;
+import org.shiftlab.services.ingest.TransactionRowWriter;
+import org.shiftlab.store.projection.DailyPaymentTypeCount;
+import org.shiftlab.store.repos.SellerRepository;
+import org.shiftlab.store.repos.TransactionBatchRepository;
+import org.shiftlab.store.repos.TransactionBatchRepository.Row;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionRowWriterTest {
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 10, 1, 12, 0);
+
+    @Mock
+    TransactionBatchRepository transactionBatchRepository;
+    @Mock
+    SellerRepository sellerRepository;
+    @Mock
+    ApplicationEventPublisher applicationEventPublisher;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    TransactionRowWriter transactionRowWriter;
+
+    @BeforeEach
+    void setUp() {
+        transactionRowWriter = new TransactionRowWriter(transactionBatchRepository, sellerRepository,
+                new TransactionBatchProperties(10000, 500, 1000, 100), applicationEventPublisher, meterRegistry);
+    }
+
+    @Test
+    void write_SameDayAndPaymentType_PublishesRunningDailyCounts() {
+        //given
+        var rows = List.of(row(10, 1), row(11, 1));
+        when(transactionBatchRepository.addToDailyStats(rows))
+                .thenReturn(List.of(new DailyPaymentTypeCount(1, DATE.toLocalDate(), PaymentType.CASH, 7L)));
+        var events = ArgumentCaptor.forClass(TransactionCreatedEvent.class);
+        //when
+        transactionRowWriter.write(rows);
+        //then
+        verify(transactionBatchRepository).insertAll(rows, 500);
+        verify(transactionBatchRepository).addToHourlyStats(rows);
+        verify(applicationEventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(6L, 7L), events.getAllValues().stream().map(TransactionCreatedEvent::dailyPaymentTypeCount).toList());
+    }
+
+    @Test
+    void writeMissing_SomeRowsStoredOrSellerDeleted_WritesOnlyTheRest() {
+        //given
+        var rows = List.of(row(10, 1), row(11, 1), row(12, 2));
+        when(transactionBatchRepository.findStoredIds(List.of(10, 11, 12))).thenReturn(Set.of(10));
+        when(sellerRepository.findExistingIds(Set.of(1, 2))).thenReturn(Set.of(1));
+        when(transactionBatchRepository.addToDailyStats(List.of(row(11, 1))))
+                .thenReturn(List.of(new DailyPaymentTypeCount(1, DATE.toLocalDate(), PaymentType.CASH, 2L)));
+        //when
+        var result = transactionRowWriter.writeMissing(rows);
+        //then
+        assertEquals(List.of(row(12, 2)), result);
+        verify(transactionBatchRepository).insertAll(List.of(row(11, 1)), 500);
+        assertEquals(1, meterRegistry.counter("transactions.write.behind.dropped").count());
+    }
+
+    @Test
+    void writeMissing_AllRowsStored_WritesNothing() {
+        //given
+        var rows = List.of(row(10, 1));
+        when(transactionBatchRepository.findStoredIds(List.of(10))).thenReturn(Set.of(10));
+        when(sellerRepository.findExistingIds(Set.of(1))).thenReturn(Set.of(1));
+        //when
+        var result = transactionRowWriter.writeMissing(rows);
+        //then
+        assertEquals(List.of(), result);
+        verify(transactionBatchRepository, never()).insertAll(any(), anyInt());
+    }
+
+    private static Row row(int id, int sellerId) {
+        return new Row(id, sellerId, BigDecimal.TEN, PaymentType.CASH, DATE);
+    }
+}
@@ -1,30 +1,56 @@
 package org.shiftlab.services;
 
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.shiftlab.controllers.payload.NewTransactionPayload;
+import org.shiftlab.controllers.payload.TransactionSearchFilter;
 import org.shiftlab.dto.PaymentType;
+import org.shiftlab.dto.PaymentTypeStats;
+import org.shiftlab.dto.TransactionBatchError;
 import org.shiftlab.dto.TransactionDto;
 import org.shiftlab.exceptions.SellerNotFoundException;
+import org.shiftlab.services.event.TransactionCreatedEvent;
 import org.shiftlab.services.impl.TransactionServiceImpl;
+import org.shiftlab.services.ingest.TransactionRowWriter;
+import org.shiftlab.services.ingest.WriteBehindTransactionWriter;
 import org.shiftlab.services.mapper.EntityDtoMapper;
+import org.shiftlab.services.registry.SellerRegistry;
 import org.shiftlab.store.entity.SellerEntity;
 import org.shiftlab.store.entity.TransactionEntity;
+import org.shiftlab.store.projection.PaymentTypeTotals;
+import org.shiftlab.store.repos.SellerDailyStatsRepository;
+import org.shiftlab.store.repos.SellerHourlyStatsRepository;
 import org.shiftlab.store.repos.SellerRepository;
+import org.shiftlab.store.repos.TransactionBatchRepository;
+import org.shiftlab.store.repos.TransactionCopyRepository;
 import org.shiftlab.store.repos.TransactionRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.Clock;
-import java.util.List;
-import java.util.Optional;
-import java.util.Random;
+import java.time.LocalDate;
+import java.util.*;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +59,22 @@ public class TransactionServiceImplTest {
     TransactionRepository transactionRepository;
     @Mock
     SellerRepository sellerRepository;
+    @Mock
+    SellerRegistry sellerRegistry;
+    @Mock
+    SellerDailyStatsRepository sellerDailyStatsRepository;
+    @Mock
+    SellerHourlyStatsRepository sellerHourlyStatsRepository;
+    @Mock
+    TransactionBatchRepository transactionBatchRepository;
+    @Mock
+    TransactionCopyRepository transactionCopyRepository;
+    @Mock
+    TransactionRowWriter transactionRowWriter;
+    @Mock
+    ApplicationEventPublisher applicationEventPublisher;
+    @Mock
+    PlatformTransactionManager transactionManager;
     @InjectMocks
     TransactionServiceImpl transactionServiceImpl;
 
@@ -40,28 +82,22 @@ public class TransactionServiceImplTest {
     void setUp() {
         EntityDtoMapper entityDtoMapper = new EntityDtoMapper();
         Clock clock = Clock.systemUTC();
-        transactionServiceImpl=new TransactionServiceImpl(transactionRepository,sellerRepository,entityDtoMapper,clock);
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        transactionServiceImpl=new TransactionServiceImpl(transactionRepository,sellerRepository,sellerRegistry,sellerDailyStatsRepository,sellerHourlyStatsRepository,entityDtoMapper,
+                transactionBatchRepository,transactionCopyRepository,transactionRowWriter,Optional.empty(),validator,applicationEventPublisher,new TransactionTemplate(transactionManager),clock);
     }
     @Test
     void findAllTransactions_TransactionsExist_ReturnsTransaction() {
         //given
-        var transactions = IntStream.range(1, 4)
-                .mapToObj(i -> TransactionEntity
-                        .builder()
-                        .id(i)
-                        .amount(BigDecimal.valueOf(new Random().nextDouble()))
-                        .seller(getAnySeller())
-                        .build())
-                .toList();
         var transactionsDto = IntStream.range(1, 4)
                 .mapToObj(i -> TransactionDto
                         .builder()
                         .id(i)
-                        .amount(transactions.get(i-1).getAmount())
+                        .amount(BigDecimal.valueOf(new Random().nextDouble()))
                         .sellerId(1)
                         .build())
                 .toList();
-        when(transactionRepository.findAll()).thenReturn(transactions);
+        when(transactionRepository.findAllDtos()).thenReturn(transactionsDto);
 
         //when
         var result = transactionServiceImpl.findAllTransactions();
@@ -71,16 +107,65 @@ public class TransactionServiceImplTest {
     @Test
     void findAllTransactions_TransactionNotExist_ReturnsEmptyList() {
         //given
-        when(transactionRepository.findAll()).thenReturn(List.of());
+        when(transactionRepository.findAllDtos()).thenReturn(List.of());
         //when
         var result = transactionServiceImpl.findAllTransactions();
         //then
         assertTrue(result.isEmpty());
     }
     @Test
+    void findTransactionsAfter_FullPage_ReturnsNextCursor() {
+        //given
+        var transactions = IntStream.range(11, 14)
+                .mapToObj(i -> TransactionDto.builder().id(i).sellerId(1).build())
+                .toList();
+        when(transactionRepository.findDtosAfter(10, PageRequest.ofSize(3))).thenReturn(transactions);
+        //when
+        var result = transactionServiceImpl.findTransactionsAfter(10, 2);
+        //then
+        assertEquals(List.of(11, 12), result.items().stream().map(TransactionDto::getId).toList());
+        assertEquals(12, result.next());
+    }
+    @Test
+    void exportTransactions_TransactionsExist_PassesEveryRow() {
+        //given
+        var transactions = IntStream.range(1, 4)
+                .mapToObj(i -> TransactionDto.builder().id(i).sellerId(1).build())
+                .toList();
+        when(transactionRepository.streamAllDtos()).thenReturn(transactions.stream());
+        var exported = new ArrayList<TransactionDto>();
+        //when
+        transactionServiceImpl.exportTransactions(exported::add);
+        //then
+        assertEquals(List.of(1, 2, 3), exported.stream().map(TransactionDto::getId).toList());
+    }
+    @Test
+    void findSellerTransactionsAfter_SellerNotExist_ReturnSellerNotFoundException() {
+        //given
+        when(sellerRegistry.exists(1)).thenReturn(false);
+        //then
+        assertThrows(SellerNotFoundException.class, () -> transactionServiceImpl.findSellerTransactionsAfter(1, 0, 10));
+        verifyNoInteractions(transactionRepository);
+    }
+    @Test
+    void searchTransactions_FullPage_ReturnsNextCursor() {
+        //given
+        var filter = new TransactionSearchFilter(1, null, null, PaymentType.CARD, BigDecimal.valueOf(500), null);
+        var transactions = IntStream.range(7, 10)
+                .mapToObj(i -> TransactionDto.builder().id(i).sellerId(1).paymentType(PaymentType.CARD).build())
+                .toList();
+        when(transactionRepository.findDtos(any(Specification.class), eq(3))).thenReturn(transactions);
+        //when
+        var result = transactionServiceImpl.searchTransactions(filter, 0, 2);
+        //then
+        assertEquals(List.of(7, 8), result.items().stream().map(TransactionDto::getId).toList());
+        assertEquals(8, result.next());
+    }
+    @Test
     void createTransaction_SellerExist_Successfully() {
         //given
-        when(sellerRepository.findById(1)).thenReturn(Optional.of(getAnySeller()));
+        when(sellerRegistry.exists(1)).thenReturn(true);
+        when(sellerRepository.getReferenceById(1)).thenReturn(getAnySeller());
         when(transactionRepository.save(TransactionEntity.builder()
                         .seller(getAnySeller())
                         .registrationDate(any())
@@ -104,34 +189,168 @@ public class TransactionServiceImplTest {
         var result = transactionServiceImpl.createTransaction(1,BigDecimal.valueOf(100.5), PaymentType.TRANSFER);
         //then
         assertEquals(dto, result);
+        verify(sellerDailyStatsRepository).addTransaction(eq(1), any(), eq("TRANSFER"), eq(BigDecimal.valueOf(100.5)));
+        verify(sellerHourlyStatsRepository).addTransaction(eq(1), any(), eq(BigDecimal.valueOf(100.5)));
+        verify(applicationEventPublisher).publishEvent(any(TransactionCreatedEvent.class));
 
     }
     @Test
+    void createTransaction_WriteBehindEnabled_AppendsToLogWithoutSaving(@Mock WriteBehindTransactionWriter writeBehindTransactionWriter) {
+        //given
+        var service = new TransactionServiceImpl(transactionRepository,sellerRepository,sellerRegistry,sellerDailyStatsRepository,sellerHourlyStatsRepository,new EntityDtoMapper(),
+                transactionBatchRepository,transactionCopyRepository,transactionRowWriter,Optional.of(writeBehindTransactionWriter),
+                Validation.buildDefaultValidatorFactory().getValidator(),applicationEventPublisher,new TransactionTemplate(transactionManager),Clock.systemUTC());
+        when(sellerRegistry.exists(1)).thenReturn(true);
+        when(writeBehindTransactionWriter.append(eq(1), eq(BigDecimal.TEN), eq(PaymentType.CASH), any()))
+                .thenAnswer(invocation -> new TransactionBatchRepository.Row(15, 1, BigDecimal.TEN, PaymentType.CASH, invocation.getArgument(3)));
+        //when
+        var result = service.createTransaction(1, BigDecimal.TEN, PaymentType.CASH);
+        //then
+        assertEquals(15, result.getId());
+        assertEquals(1, result.getSellerId());
+        verifyNoInteractions(transactionRepository, sellerDailyStatsRepository, applicationEventPublisher, transactionManager);
+    }
+    @Test
     void createTransaction_SellerNotExist_ReturnSellerNotFoundException() {
         //given
-        when(sellerRepository.findById(1)).thenReturn(Optional.empty());
+        when(sellerRegistry.exists(1)).thenReturn(false);
 
         //then
         assertThrows(SellerNotFoundException.class, ()->transactionServiceImpl.createTransaction(1,BigDecimal.valueOf(100.5), PaymentType.TRANSFER));
+        verifyNoInteractions(transactionRepository);
 
     }
     @Test
-    void findTransactionById_TransactionExist_ReturnsOptionalTransactionDto() {
+    void createTransaction_SellerDeletedConcurrently_ReturnSellerNotFoundException() {
         //given
-        when(transactionRepository.findById(1)).thenReturn(Optional.of(getAnyTransaction()));
+        when(sellerRegistry.exists(1)).thenReturn(true);
+        when(sellerRepository.getReferenceById(1)).thenReturn(getAnySeller());
+        when(transactionRepository.save(any())).thenThrow(new DataIntegrityViolationException("fk_seller",
+                new SQLException("insert or update on table \"transaction\" violates foreign key constraint \"fk_seller\"", "23503")));
+
+        //then
+        assertThrows(SellerNotFoundException.class, ()->transactionServiceImpl.createTransaction(1,BigDecimal.valueOf(100.5), PaymentType.TRANSFER));
+        verify(sellerRegistry).remove(1);
+
+    }
+    @Test
+    void createTransaction_OtherIntegrityViolation_Rethrown() {
+        //given
+        when(sellerRegistry.exists(1)).thenReturn(true);
+        when(sellerRepository.getReferenceById(1)).thenReturn(getAnySeller());
+        when(transactionRepository.save(any())).thenThrow(new DataIntegrityViolationException("amount",
+                new SQLException("numeric field overflow", "22003")));
+
+        //then
+        assertThrows(DataIntegrityViolationException.class, ()->transactionServiceImpl.createTransaction(1,BigDecimal.valueOf(100.5), PaymentType.TRANSFER));
+        verify(sellerRegistry, never()).remove(1);
+
+    }
+    @Test
+    void createTransactions_SomeItemsInvalid_InsertValidAndReportFailures() {
+        //given
+        var payloads = List.of(
+                new NewTransactionPayload(1, BigDecimal.valueOf(100.5), "transfer"),
+                new NewTransactionPayload(2, BigDecimal.valueOf(10), "CASH"),
+                new NewTransactionPayload(1, BigDecimal.valueOf(10), "DOLLAR"),
+                new NewTransactionPayload(1, BigDecimal.valueOf(-10), "CASH"),
+                new NewTransactionPayload(1, BigDecimal.valueOf(20), "TRANSFER"));
+        when(sellerRegistry.findExisting(Set.of(1, 2))).thenReturn(Set.of(1));
+        when(sellerRepository.lockExistingIds(Set.of(1))).thenReturn(Set.of(1));
+        when(transactionBatchRepository.allocateIds(2)).thenReturn(List.of(10, 11));
+        var rows = ArgumentCaptor.forClass(List.class);
         //when
-        var result = transactionServiceImpl.findTransactionById(1);
+        var result = transactionServiceImpl.createTransactions(payloads);
+        //then
+        assertEquals(Arrays.asList(10, null, null, null, 11), result.ids());
+        assertEquals(List.of(1, 2, 3), result.errors().stream().map(TransactionBatchError::index).toList());
+        verify(transactionRowWriter).write(rows.capture());
+        assertEquals(List.of(10, 11), ((List<TransactionBatchRepository.Row>) rows.getValue()).stream()
+                .map(TransactionBatchRepository.Row::id)
+                .toList());
+    }
+    @Test
+    void createTransactions_AmountExceedsPrecision_ReportFailure() {
+        //given
+        var payloads = List.of(
+                new NewTransactionPayload(1, new BigDecimal("100000000000000"), "CASH"),
+                new NewTransactionPayload(1, new BigDecimal("10.005"), "CASH"));
+        when(sellerRegistry.findExisting(Set.of(1))).thenReturn(Set.of(1));
+        //when
+        var result = transactionServiceImpl.createTransactions(payloads);
+        //then
+        assertEquals(Arrays.asList(null, null), result.ids());
+        assertEquals(List.of(0, 1), result.errors().stream().map(TransactionBatchError::index).toList());
+        verifyNoInteractions(transactionBatchRepository, transactionRowWriter);
+    }
+    @Test
+    void createTransactions_SellerDeletedAfterRegistryCheck_ReportFailureAndInsertRest() {
+        //given
+        var payloads = List.of(
+                new NewTransactionPayload(2, BigDecimal.TEN, "CASH"),
+                new NewTransactionPayload(1, BigDecimal.TEN, "CASH"),
+                new NewTransactionPayload(3, BigDecimal.TEN, "DOLLAR"));
+        when(sellerRegistry.findExisting(Set.of(1, 2, 3))).thenReturn(Set.of(1, 2, 3));
+        when(sellerRepository.lockExistingIds(Set.of(1, 2))).thenReturn(Set.of(1));
+        when(transactionBatchRepository.allocateIds(1)).thenReturn(List.of(10));
+        //when
+        var result = transactionServiceImpl.createTransactions(payloads);
         //then
+        assertEquals(Arrays.asList(null, 10, null), result.ids());
+        assertEquals(List.of(
+                new TransactionBatchError(0, "Seller with id '2' not found"),
+                new TransactionBatchError(2, "Invalid payment type")), result.errors());
+        verify(sellerRegistry).remove(2);
+    }
+    @Test
+    void createTransactions_AllItemsInvalid_NothingInserted() {
+        //given
+        when(sellerRegistry.findExisting(Set.of(1))).thenReturn(Set.of());
+        //when
+        var result = transactionServiceImpl.createTransactions(List.of(new NewTransactionPayload(1, BigDecimal.TEN, "CASH")));
+        //then
+        assertEquals(Collections.singletonList(null), result.ids());
+        assertEquals(List.of(new TransactionBatchError(0, "Seller with id '1' not found")), result.errors());
+        verifyNoInteractions(transactionBatchRepository, transactionRowWriter);
+    }
+    @Test
+    void findTransactionById_TransactionExist_ReturnsOptionalTransactionDto() {
+        //given
         var dto = TransactionDto.builder()
                 .id(1)
                 .amount(BigDecimal.valueOf(100.5))
                 .paymentType(PaymentType.TRANSFER)
                 .sellerId(1)
                 .build();
+        when(transactionRepository.findDtoById(1)).thenReturn(Optional.of(dto));
+        //when
+        var result = transactionServiceImpl.findTransactionById(1);
+        //then
 
         assertEquals(Optional.of(dto), result);
     }
 
+    @Test
+    void findPaymentTypeStats_TotalsExist_ReturnStatsWithAverage() {
+        //given
+        var from = LocalDate.of(2024,10,1);
+        var to = LocalDate.of(2024,10,31);
+        when(sellerDailyStatsRepository.findPaymentTypeTotals(from, to, null)).thenReturn(List.of(
+                new PaymentTypeTotals(PaymentType.CASH, 3L, BigDecimal.valueOf(10))));
+        //when
+        var result = transactionServiceImpl.findPaymentTypeStats(from, to, null);
+        //then
+        assertEquals(List.of(new PaymentTypeStats(PaymentType.CASH, 3, BigDecimal.valueOf(10), new BigDecimal("3.33"))), result);
+    }
+    @Test
+    void findPaymentTypeStats_SellerNotExist_ReturnSellerNotFoundException() {
+        //given
+        when(sellerRepository.existsById(1)).thenReturn(false);
+        //then
+        assertThrows(SellerNotFoundException.class,
+                ()->transactionServiceImpl.findPaymentTypeStats(LocalDate.of(2024,10,1), LocalDate.of(2024,10,31), 1));
+    }
+
     SellerEntity getAnySeller() {
 
         return SellerEntity.builder()
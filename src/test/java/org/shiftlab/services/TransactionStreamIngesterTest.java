@@ -0,0 +1,107 @@
+package org.shiftlab.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.shiftlab.config.TransactionBatchProperties;
+import org.shiftlab.controllers.payload.NewTransactionPayload;
+import org.shiftlab.dto.TransactionBatchError;
+import org.shiftlab.dto.TransactionBatchResult;
+import org.shiftlab.services.ingest.TransactionStreamIngester;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionStreamIngesterTest {
+    @Mock
+    private TransactionService transactionService;
+
+    private TransactionStreamIngester transactionStreamIngester;
+
+    @BeforeEach
+    void setUp() {
+        transactionStreamIngester = new TransactionStreamIngester(transactionService,
+                new TransactionBatchProperties(10000, 500, 2, 100), new ObjectMapper());
+    }
+    @Test
+    void ingest_LinesWithErrors_CommitInChunksAndReportLineNumbers() {
+        //given
+        var body = """
+                {"sellerId":1,"amount":10,"paymentType":"CASH"}
+                not a json
+
+                {"sellerId":2,"amount":20,"paymentType":"CARD"}
+                {"sellerId":3,"amount":30,"paymentType":"CARD"}""";
+        List<List<NewTransactionPayload>> chunks = new ArrayList<>();
+        when(transactionService.createTransactions(any())).thenAnswer(invocation -> {
+            List<NewTransactionPayload> chunk = new ArrayList<>(invocation.getArgument(0));
+            chunks.add(chunk);
+            return chunk.get(0).sellerId() == 3
+                    ? new TransactionBatchResult(Collections.singletonList(null), List.of(new TransactionBatchError(0, "Seller with id '3' not found")))
+                    : new TransactionBatchResult(List.of(1, 2), List.of());
+        });
+        //when
+        var result = transactionStreamIngester.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        //then
+        assertEquals(List.of(2, 1), chunks.stream().map(List::size).toList());
+        assertEquals(2, result.accepted());
+        assertEquals(2, result.rejected());
+        assertEquals(List.of(
+                new TransactionBatchError(2, "Malformed JSON"),
+                new TransactionBatchError(5, "Seller with id '3' not found")), result.errors());
+    }
+    @Test
+    void ingest_ChunkErrorsReportedAfterLaterLines_ErrorsSortedByLine() {
+        //given
+        var body = """
+                {"sellerId":9,"amount":10,"paymentType":"CASH"}
+                not a json
+                {"sellerId":1,"amount":20,"paymentType":"CARD"}""";
+        when(transactionService.createTransactions(any())).thenReturn(new TransactionBatchResult(
+                Arrays.asList(null, 1), List.of(new TransactionBatchError(0, "Seller with id '9' not found"))));
+        //when
+        var result = transactionStreamIngester.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        //then
+        assertEquals(List.of(
+                new TransactionBatchError(1, "Seller with id '9' not found"),
+                new TransactionBatchError(2, "Malformed JSON")), result.errors());
+    }
+    @Test
+    void ingest_MoreErrorsThanReported_KeepLowestLines() {
+        //given
+        transactionStreamIngester = new TransactionStreamIngester(transactionService,
+                new TransactionBatchProperties(10000, 500, 2, 1), new ObjectMapper());
+        var body = """
+                {"sellerId":9,"amount":10,"paymentType":"CASH"}
+                not a json
+                {"sellerId":1,"amount":20,"paymentType":"CARD"}""";
+        when(transactionService.createTransactions(any())).thenReturn(new TransactionBatchResult(
+                Arrays.asList(null, 1), List.of(new TransactionBatchError(0, "Seller with id '9' not found"))));
+        //when
+        var result = transactionStreamIngester.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        //then
+        assertEquals(2, result.rejected());
+        assertEquals(List.of(new TransactionBatchError(1, "Seller with id '9' not found")), result.errors());
+    }
+    @Test
+    void ingest_EmptyBody_NothingCommitted() {
+        //when
+        var result = transactionStreamIngester.ingest(new ByteArrayInputStream(new byte[0]));
+        //then
+        assertEquals(0, result.accepted());
+        assertEquals(0, result.rejected());
+        verifyNoInteractions(transactionService);
+    }
+}
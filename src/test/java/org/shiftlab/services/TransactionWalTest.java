@@ -0,0 +1,107 @@
+package org.shiftlab.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.services.ingest.TransactionWal;
+import org.shiftlab.store.repos.TransactionBatchRepository.Row;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TransactionWalTest {
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 10, 1, 12, 30, 15);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readSealed_LogReopened_ReturnsAppendedRowsInOrder() throws IOException {
+        //given
+        var rows = List.of(row(1, "100.50", PaymentType.CARD), row(2, "7", PaymentType.CASH), row(3, "0.01", PaymentType.TRANSFER));
+        try (var wal = new TransactionWal(directory)) {
+            wal.append(rows.subList(0, 2));
+            wal.sync();
+            wal.rotate();
+            wal.append(rows.subList(2, 3));
+            wal.sync();
+        }
+        //when
+        List<Row> result;
+        try (var wal = new TransactionWal(directory)) {
+            result = wal.readSealed();
+        }
+        //then
+        assertEquals(rows, result);
+    }
+
+    @Test
+    void readSealed_TornLastRecord_IgnoresIt() throws IOException {
+        //given
+        try (var wal = new TransactionWal(directory)) {
+            wal.append(List.of(row(1, "10", PaymentType.CASH), row(2, "20", PaymentType.CASH)));
+            wal.sync();
+        }
+        Path segment = Files.list(directory).findFirst().orElseThrow();
+        String content = Files.readString(segment);
+        Files.writeString(segment, content.substring(0, content.length() - 5), StandardCharsets.UTF_8,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        //when
+        List<Row> result;
+        try (var wal = new TransactionWal(directory)) {
+            result = wal.readSealed();
+        }
+        //then
+        assertEquals(List.of(row(1, "10", PaymentType.CASH)), result);
+    }
+
+    @Test
+    void deleteSealedBefore_RotatedSegments_KeepsOpenSegment() throws IOException {
+        //given
+        try (var wal = new TransactionWal(directory)) {
+            wal.append(List.of(row(1, "10", PaymentType.CASH)));
+            long open = wal.rotate();
+            wal.append(List.of(row(2, "20", PaymentType.CASH)));
+            wal.sync();
+            //when
+            wal.deleteSealedBefore(open);
+            //then
+            assertTrue(wal.readSealed().isEmpty());
+        }
+        try (var wal = new TransactionWal(directory)) {
+            assertEquals(List.of(row(2, "20", PaymentType.CASH)), wal.readSealed());
+        }
+    }
+
+    @Test
+    void deadLetter_SegmentsDeleted_KeepsDeadLetters() throws IOException {
+        //given
+        var rejected = row(1, "100000000000000", PaymentType.CARD);
+        try (var wal = new TransactionWal(directory)) {
+            wal.append(List.of(rejected, row(2, "20", PaymentType.CASH)));
+            wal.sync();
+            long open = wal.rotate();
+            //when
+            wal.deadLetter(List.of(rejected));
+            wal.deleteSealedBefore(open);
+        }
+        //then
+        try (var wal = new TransactionWal(directory)) {
+            assertTrue(wal.readSealed().isEmpty());
+            assertEquals(List.of(rejected), wal.readDeadLetters());
+        }
+    }
+
+    private static Row row(int id, String amount, PaymentType paymentType) {
+        return new Row(id, 1, new BigDecimal(amount), paymentType, DATE);
+    }
+}
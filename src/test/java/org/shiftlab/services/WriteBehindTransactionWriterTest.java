@@ -0,0 +1,150 @@
+package org.shiftlab.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.shiftlab.config.WriteBehindProperties;
+import org.shiftlab.dto.PaymentType;
+import org.shiftlab.services.ingest.TransactionRowWriter;
+import org.shiftlab.services.ingest.TransactionWal;
+import org.shiftlab.services.ingest.WriteBehindTransactionWriter;
+import org.shiftlab.store.repos.TransactionBatchRepository;
+import org.shiftlab.store.repos.TransactionBatchRepository.Row;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class WriteBehindTransactionWriterTest {
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 10, 1, 12, 0);
+
+    @Mock
+    TransactionRowWriter transactionRowWriter;
+    @Mock
+    TransactionBatchRepository transactionBatchRepository;
+    @TempDir
+    Path directory;
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void start_UnflushedLog_ReplaysRows() throws Exception {
+        //given
+        var row = new Row(5, 1, BigDecimal.TEN, PaymentType.CASH, DATE);
+        try (var wal = new TransactionWal(directory)) {
+            wal.append(List.of(row));
+            wal.sync();
+        }
+        var writer = writer();
+        //when
+        writer.start();
+        writer.stop();
+        //then
+        verify(transactionRowWriter).writeMissing(List.of(row));
+        try (var wal = new TransactionWal(directory)) {
+            assertTrue(wal.readSealed().isEmpty());
+        }
+    }
+
+    @Test
+    void append_Acknowledged_RowIsDurableUntilFlushed() throws Exception {
+        //given
+        when(transactionBatchRepository.allocateIds(100)).thenReturn(List.of(10, 11));
+        var writer = writer();
+        writer.start();
+        //when
+        var row = writer.append(1, BigDecimal.TEN, PaymentType.CARD, DATE);
+        //then
+        assertEquals(new Row(10, 1, BigDecimal.TEN, PaymentType.CARD, DATE), row);
+        assertEquals(1, writer.pendingCount());
+        try (var wal = new TransactionWal(directory)) {
+            assertEquals(List.of(row), wal.readSealed());
+        }
+        writer.flush();
+        assertEquals(0, writer.pendingCount());
+        verify(transactionRowWriter).writeMissing(List.of(row));
+        writer.stop();
+    }
+
+    @Test
+    void flush_DatabaseUnavailable_KeepsRowsPending() throws Exception {
+        //given
+        when(transactionBatchRepository.allocateIds(100)).thenReturn(List.of(10, 11));
+        doThrow(new IllegalStateException("database is down")).doReturn(List.of())
+                .when(transactionRowWriter).writeMissing(any());
+        var writer = writer();
+        writer.start();
+        writer.append(1, BigDecimal.TEN, PaymentType.CARD, DATE);
+        //when
+        writer.flush();
+        //then
+        assertEquals(1, writer.pendingCount());
+        writer.flush();
+        assertEquals(0, writer.pendingCount());
+        verify(transactionRowWriter, times(2)).writeMissing(any());
+        writer.stop();
+    }
+
+    @Test
+    void flush_RowViolatesConstraint_DeadLettersOnlyThatRow() throws Exception {
+        //given
+        when(transactionBatchRepository.allocateIds(100)).thenReturn(List.of(10, 11));
+        var writer = writer();
+        writer.start();
+        var valid = writer.append(1, BigDecimal.TEN, PaymentType.CARD, DATE);
+        var invalid = writer.append(1, new BigDecimal("100000000000000"), PaymentType.CARD, DATE);
+        var overflow = new DataIntegrityViolationException("numeric field overflow");
+        doThrow(overflow).when(transactionRowWriter).writeMissing(List.of(valid, invalid));
+        doThrow(overflow).when(transactionRowWriter).writeMissing(List.of(invalid));
+        when(transactionRowWriter.writeMissing(List.of(valid))).thenReturn(List.of());
+        //when
+        writer.flush();
+        //then
+        assertEquals(0, writer.pendingCount());
+        verify(transactionRowWriter).writeMissing(List.of(valid));
+        assertEquals(1, meterRegistry.counter("transactions.write.behind.dead.letter").count());
+        writer.flush();
+        verify(transactionRowWriter, times(3)).writeMissing(any());
+        writer.stop();
+        try (var wal = new TransactionWal(directory)) {
+            assertEquals(List.of(invalid), wal.readDeadLetters());
+        }
+    }
+
+    @Test
+    void flush_SellerDeleted_KeepsDroppedRowsAsDeadLetters() throws Exception {
+        //given
+        when(transactionBatchRepository.allocateIds(100)).thenReturn(List.of(10, 11));
+        var writer = writer();
+        writer.start();
+        var row = writer.append(1, BigDecimal.TEN, PaymentType.CARD, DATE);
+        when(transactionRowWriter.writeMissing(List.of(row))).thenReturn(List.of(row));
+        //when
+        writer.flush();
+        writer.stop();
+        //then
+        try (var wal = new TransactionWal(directory)) {
+            assertTrue(wal.readSealed().isEmpty());
+            assertEquals(List.of(row), wal.readDeadLetters());
+        }
+    }
+
+    private WriteBehindTransactionWriter writer() throws Exception {
+        return new WriteBehindTransactionWriter(transactionRowWriter, transactionBatchRepository,
+                new WriteBehindProperties(true, directory, Duration.ofHours(1), 100, 1000), meterRegistry);
+    }
+}
@@ -0,0 +1 @@
+delete from sales_management.seller;
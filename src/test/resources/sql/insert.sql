@@ -10,4 +10,12 @@ VALUES
     (3,1, 325.51, 'TRANSFER', '2024-09-11 14:45:00'),
     (4,2, 12.53, 'CARD', '2024-09-03 10:00:00'),
     (5,2, 52.78, 'CASH', '2024-10-03 11:00:00'),
-    (6,3, 5.61, 'CASH', '2024-10-19 12:30:00');
\ No newline at end of file
+    (6,3, 5.61, 'CASH', '2024-10-19 12:30:00');
+INSERT INTO sales_management.seller_daily_stats (seller_id, transaction_day, payment_type, transaction_count, amount_sum)
+SELECT seller_id, transaction_date::date, payment_type, count(*), sum(amount)
+FROM sales_management.transaction
+GROUP BY seller_id, transaction_date::date, payment_type;
+INSERT INTO sales_management.seller_hourly_stats (seller_id, transaction_hour, transaction_count, amount_sum)
+SELECT seller_id, date_trunc('hour', transaction_date), count(*), sum(amount)
+FROM sales_management.transaction
+GROUP BY seller_id, date_trunc('hour', transaction_date);